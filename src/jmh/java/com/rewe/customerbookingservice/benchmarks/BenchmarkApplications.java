@@ -0,0 +1,41 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application against a private in-memory H2 database so benchmarks do not need Postgres.
+ */
+final class BenchmarkApplications {
+
+    private BenchmarkApplications() {
+    }
+
+    static ConfigurableApplicationContext startWithH2(String... extraProperties) {
+        return startWithH2(WebApplicationType.NONE, extraProperties);
+    }
+
+    static ConfigurableApplicationContext startWithH2(WebApplicationType webApplicationType, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.liquibase.enabled=false",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.open-in-view=false",
+                "app.outbox.relay-enabled=false",
+                "app.outbox.sink=in-memory",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+        return new SpringApplicationBuilder(CustomerBookingServiceApplication.class)
+                .web(webApplicationType)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+}
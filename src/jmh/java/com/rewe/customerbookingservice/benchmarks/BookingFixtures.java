@@ -0,0 +1,135 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic-looking test data shared by the benchmarks.
+ */
+final class BookingFixtures {
+
+    private static final String DESCRIPTION = "Seasonal promotion placement for the brand across all regional stores, "
+            + "including shelf space, flyer slot and in-store announcements.";
+
+    private BookingFixtures() {
+    }
+
+    static Booking booking(long id) {
+        Brand brand = new Brand();
+        brand.setId(id % 50 + 1);
+        brand.setName("Brand " + brand.getId());
+        brand.setAddress(brand.getId() + " Main St, City");
+        brand.setShortCode("B" + brand.getId());
+        brand.setCreated(Instant.parse("2023-10-01T01:00:00Z"));
+        brand.setUpdated(Instant.parse("2023-10-01T01:00:00Z"));
+
+        Customer customer = new Customer();
+        customer.setId(id % 5_000 + 1);
+        customer.setName("Customer " + customer.getId());
+        customer.setEmail("customer" + customer.getId() + "@example.com");
+        customer.setAge(30);
+        customer.setActive(true);
+        customer.setCreated(Instant.parse("2023-10-01T01:00:00Z"));
+        customer.setUpdated(Instant.parse("2023-10-01T01:00:00Z"));
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setTitle("Booking " + id);
+        booking.setDescription(DESCRIPTION);
+        booking.setActive(true);
+        booking.setStartDate(LocalDate.of(2024, 1, 1).plusDays(id % 300));
+        booking.setEndDate(booking.getStartDate().plusDays(14));
+        booking.setCreated(Instant.parse("2023-10-02T01:00:00Z"));
+        booking.setUpdated(Instant.parse("2023-10-02T01:00:00Z"));
+        booking.setBrand(brand);
+        booking.setCustomer(customer);
+        return booking;
+    }
+
+    static List<BookingDTO> bookingDTOs(int size) {
+        List<BookingDTO> bookings = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            BrandDTO brand = BrandDTO.builder()
+                    .id((long) i % 50 + 1)
+                    .name("Brand " + (i % 50 + 1))
+                    .address((i % 50 + 1) + " Main St, City")
+                    .shortCode("B" + (i % 50 + 1))
+                    .build();
+            CustomerDTO customer = CustomerDTO.builder()
+                    .id((long) i % 5_000 + 1)
+                    .name("Customer " + (i % 5_000 + 1))
+                    .email("customer" + (i % 5_000 + 1) + "@example.com")
+                    .age(30)
+                    .active(true)
+                    .created(LocalDateTime.of(2023, 10, 1, 1, 0))
+                    .updated(LocalDateTime.of(2023, 10, 1, 1, 0))
+                    .build();
+            bookings.add(BookingDTO.builder()
+                    .id((long) i)
+                    .title("Booking " + i)
+                    .description(DESCRIPTION)
+                    .active(true)
+                    .created(LocalDateTime.of(2023, 10, 2, 1, 0))
+                    .updated(LocalDateTime.of(2023, 10, 2, 1, 0))
+                    .startDate(LocalDate.of(2024, 1, 1).plusDays(i % 300))
+                    .endDate(LocalDate.of(2024, 1, 15).plusDays(i % 300))
+                    .brand(brand)
+                    .customer(customer)
+                    .build());
+        }
+        return bookings;
+    }
+
+    /**
+     * Seeds brands, customers and bookings with plain JDBC batches; bookings are spread evenly over
+     * brands and customers.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int brands, int customers, int bookings) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> brandRows = new ArrayList<>(brands);
+        for (int i = 1; i <= brands; i++) {
+            brandRows.add(new Object[]{"Brand " + i, i + " Main St, City", "B" + i, now, now});
+        }
+        jdbcTemplate.batchUpdate("insert into brand (name, address, short_code, created, updated) values (?, ?, ?, ?, ?)",
+                brandRows);
+
+        List<Object[]> customerRows = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            customerRows.add(new Object[]{"Customer " + i, "customer" + i + "@example.com", true, 30, now, now});
+        }
+        jdbcTemplate.batchUpdate("insert into customer (name, email, active, age, created, updated) values (?, ?, ?, ?, ?, ?)",
+                customerRows);
+
+        List<Long> brandIds = jdbcTemplate.queryForList("select id from brand order by id", Long.class);
+        List<Long> customerIds = jdbcTemplate.queryForList("select id from customer order by id", Long.class);
+        List<Object[]> bookingRows = new ArrayList<>(10_000);
+        for (int i = 0; i < bookings; i++) {
+            LocalDate start = LocalDate.of(2024, 1, 1).plusDays(i % 300);
+            bookingRows.add(new Object[]{"Booking " + i, DESCRIPTION, true, 0, Date.valueOf(start),
+                    Date.valueOf(start.plusDays(14)), brandIds.get(i % brands), customerIds.get(i % customers), now, now});
+            if (bookingRows.size() == 10_000) {
+                insertBookings(jdbcTemplate, bookingRows);
+                bookingRows.clear();
+            }
+        }
+        insertBookings(jdbcTemplate, bookingRows);
+    }
+
+    private static void insertBookings(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into booking (title, description, active, age, start_date, end_date, brand_id, "
+                + "customer_id, created, updated) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,61 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.services.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting the same number of bookings one request at a time versus one bulk call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BookingInsertBenchmark {
+
+    @Param({"1000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private List<BookingDTO> bookingDTOs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplications.startWithH2(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "spring.jpa.properties.hibernate.order_inserts=true");
+        bookingService = context.getBean(BookingService.class);
+        bookingDTOs = new ArrayList<>(bookings);
+        for (BookingDTO bookingDTO : BookingFixtures.bookingDTOs(bookings)) {
+            bookingDTO.setId(null);
+            bookingDTO.setBrand(null);
+            bookingDTO.setCustomer(null);
+            bookingDTOs.add(bookingDTO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleRowInserts() {
+        int saved = 0;
+        for (BookingDTO bookingDTO : bookingDTOs) {
+            bookingService.saveBooking(bookingDTO);
+            saved++;
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public int bulkInsert() {
+        return bookingService.saveBookings(bookingDTOs).size();
+    }
+}
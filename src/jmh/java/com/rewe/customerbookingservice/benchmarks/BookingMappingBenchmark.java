@@ -0,0 +1,43 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.mappers.impl.DirectEntityMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking -> BookingDTO mapping including the nested brand and customer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BookingMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private DirectEntityMapper directEntityMapper;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STANDARD);
+        directEntityMapper = new DirectEntityMapper();
+        booking = BookingFixtures.booking(42);
+        // let ModelMapper build and cache its type map before measuring
+        modelMapper.map(booking, BookingDTO.class);
+    }
+
+    @Benchmark
+    public BookingDTO modelMapper() {
+        return modelMapper.map(booking, BookingDTO.class);
+    }
+
+    @Benchmark
+    public BookingDTO directMapper() {
+        return directEntityMapper.toDto(booking);
+    }
+}
@@ -0,0 +1,59 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.services.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking list reads through {@link BookingService} against an embedded H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BookingRepositoryBenchmark {
+
+    private static final int BRANDS = 20;
+    private static final int CUSTOMERS = 2_000;
+
+    @Param({"100", "1000"})
+    public int bookingsPerBrand;
+
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private List<Long> brandIds;
+    private List<Long> customerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplications.startWithH2("app.second-level-cache.enabled=" + secondLevelCache);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BookingFixtures.seed(jdbcTemplate, BRANDS, CUSTOMERS, BRANDS * bookingsPerBrand);
+        brandIds = jdbcTemplate.queryForList("select id from brand", Long.class);
+        customerIds = jdbcTemplate.queryForList("select id from customer", Long.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDTO> findBookingsByBrandId() {
+        return bookingService.findBookingsByBrandId(brandIds.get(ThreadLocalRandom.current().nextInt(brandIds.size())));
+    }
+
+    @Benchmark
+    public List<BookingDTO> findBookingsByCustomerId() {
+        return bookingService.findBookingsByCustomerId(customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size())));
+    }
+}
@@ -0,0 +1,56 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.json.BookingJsonModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of booking list responses, configured the same way Spring Boot configures
+ * the application's {@link ObjectMapper}. {@code optimized} adds {@link BookingJsonModule}; setup
+ * fails if its output differs from the {@code standard} bean serializers by a single byte.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BookingSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"standard", "optimized"})
+    public String serialization;
+
+    private ObjectMapper objectMapper;
+    private List<BookingDTO> bookings;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper standard = objectMapper();
+        objectMapper = "optimized".equals(serialization)
+                ? objectMapper().registerModule(new BookingJsonModule())
+                : standard;
+        bookings = BookingFixtures.bookingDTOs(size);
+        if (!Arrays.equals(standard.writeValueAsBytes(bookings), objectMapper.writeValueAsBytes(bookings))) {
+            throw new IllegalStateException(serialization + " serialization differs from the bean serializers");
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeBookingList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    private static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
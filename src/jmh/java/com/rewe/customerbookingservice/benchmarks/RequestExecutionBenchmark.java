@@ -0,0 +1,71 @@
+package com.rewe.customerbookingservice.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many concurrent clients reading booking pages over HTTP, with requests on platform threads
+ * versus virtual threads. Throughput and the latency distribution are reported per mode.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(256)
+public class RequestExecutionBenchmark {
+
+    private static final int BRANDS = 20;
+    private static final int CUSTOMERS = 2_000;
+    private static final int BOOKINGS = 20_000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    /**
+     * Tomcat thread cap for platform threads, below the client count so requests queue.
+     */
+    @Param({"50"})
+    public int platformThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<Long> customerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplications.startWithH2(WebApplicationType.SERVLET,
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=" + platformThreads,
+                "spring.datasource.hikari.maximum-pool-size=10");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BookingFixtures.seed(jdbcTemplate, BRANDS, CUSTOMERS, BOOKINGS);
+        customerIds = jdbcTemplate.queryForList("select id from customer", Long.class);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/customers/";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int customerBookingPage() throws IOException, InterruptedException {
+        Long customerId = customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + customerId + "/bookings")).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
@@ -0,0 +1,114 @@
+package com.rewe.customerbookingservice.concurrency;
+
+import com.rewe.customerbookingservice.exception.LoadSheddingException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admits an {@code /api} request only while its {@link GradientLimiter} has a free slot, and
+ * answers it with a {@link LoadSheddingException} otherwise, resolved by the exception handler
+ * like one thrown by a controller. Reads and writes have separate limiters, so slow writes cannot
+ * starve reads. Runs ahead of the idempotency filter, so a shed request does not touch the
+ * database. A 503, which the exception handler returns when no database connection was
+ * available, counts as a dropped request and backs the limit off.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientLimiter readLimiter;
+    private final GradientLimiter writeLimiter;
+    private final Duration retryAfter;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ConcurrencyLimitFilter(GradientLimiter readLimiter, GradientLimiter writeLimiter, Duration retryAfter,
+                                  HandlerExceptionResolver handlerExceptionResolver) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfter = retryAfter;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GradientLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new LoadSheddingException("Too many concurrent " + limiter.getName() + " requests", retryAfter));
+            return;
+        }
+        long startNanos = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(limiter));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - startNanos,
+                        response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        }
+    }
+
+    public List<GradientLimiter> getLimiters() {
+        return List.of(readLimiter, writeLimiter);
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    /**
+     * Streamed responses keep their slot until they are written, but their duration is not a
+     * latency sample. {@code onComplete} also follows a timeout or an error.
+     */
+    private static final class ReleasingAsyncListener implements AsyncListener {
+
+        private final GradientLimiter limiter;
+
+        private ReleasingAsyncListener(GradientLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        /**
+         * Listeners are dropped when async processing is started again.
+         */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
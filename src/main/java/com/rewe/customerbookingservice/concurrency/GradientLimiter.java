@@ -0,0 +1,127 @@
+package com.rewe.customerbookingservice.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. It keeps a short-term and a long-term average of the request latency. While
+ * the short-term average stays within {@code rttTolerance} times the long-term one the limit grows
+ * by about its square root per request; once requests slow down, because they queue in Hikari or
+ * Postgres, the limit shrinks in proportion. A request reported as dropped cuts the limit by
+ * {@code backoffRatio}. Requests beyond the limit are rejected at once instead of waiting.
+ */
+public class GradientLimiter {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 600;
+    private static final double MIN_GRADIENT = 0.5;
+    /**
+     * When latency drops far below the long-term average, the latter catches up faster, so the
+     * limit is not held down by an incident that is over.
+     */
+    private static final double LONG_RECOVERY_RATIO = 2.0;
+    private static final double LONG_RECOVERY_DECAY = 0.95;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejections = new LongAdder();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    private boolean sampled;
+
+    public GradientLimiter(String name, int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+                           double smoothing, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits of " + name + " must satisfy 1 <= min <= max");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Takes a slot if fewer than the limit are in flight. A taken slot must be given back with one
+     * of the {@code release} methods.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                rejections.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot and feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightBefore = inflight.getAndDecrement();
+        onSample(rttNanos, inflightBefore, dropped);
+    }
+
+    /**
+     * Gives back a slot without a latency sample, for requests whose duration says nothing about
+     * the backend, such as streamed exports.
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightBefore, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (!sampled) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            sampled = true;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * SHORT_WEIGHT;
+            longRtt += (rttNanos - longRtt) * LONG_WEIGHT;
+        }
+        if (longRtt > shortRtt * LONG_RECOVERY_RATIO) {
+            longRtt *= LONG_RECOVERY_DECAY;
+        }
+        // with less than half the limit in use the latency says nothing about a higher limit
+        if (inflightBefore < limit / 2) {
+            return;
+        }
+        double gradient = Math.clamp(rttTolerance * longRtt / shortRtt, MIN_GRADIENT, 1.0);
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.clamp(limit * (1 - smoothing) + estimate * smoothing, minLimit, maxLimit);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+}
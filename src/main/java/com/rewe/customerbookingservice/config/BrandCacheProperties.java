@@ -0,0 +1,14 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds for the in-process brand cache. Both the id and the short code view use the same limits.
+ */
+@ConfigurationProperties(prefix = "app.brand-cache")
+public record BrandCacheProperties(@DefaultValue("1000") long maximumSize,
+                                   @DefaultValue("10m") Duration expireAfterWrite) {
+}
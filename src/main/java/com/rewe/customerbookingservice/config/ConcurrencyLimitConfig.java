@@ -0,0 +1,68 @@
+package com.rewe.customerbookingservice.config;
+
+import com.rewe.customerbookingservice.concurrency.ConcurrencyLimitFilter;
+import com.rewe.customerbookingservice.concurrency.GradientLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Puts the {@link ConcurrencyLimitFilter} in front of the {@code /api} requests and publishes
+ * limit, in-flight requests and rejections per limiter.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                         @Qualifier("handlerExceptionResolver")
+                                                         HandlerExceptionResolver handlerExceptionResolver) {
+        GradientLimiter readLimiter = new GradientLimiter("read", properties.readInitialLimit(),
+                properties.readMinLimit(), properties.readMaxLimit(), properties.rttTolerance(),
+                properties.smoothing(), properties.backoffRatio());
+        GradientLimiter writeLimiter = new GradientLimiter("write", properties.writeInitialLimit(),
+                properties.writeMinLimit(), properties.writeMaxLimit(), properties.rttTolerance(),
+                properties.smoothing(), properties.backoffRatio());
+        return new ConcurrencyLimitFilter(readLimiter, writeLimiter, properties.retryAfter(), handlerExceptionResolver);
+    }
+
+    /**
+     * Runs inside the SQL statement metrics filter and ahead of the idempotency filter, which
+     * claims its key in the database.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter concurrencyLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(ConcurrencyLimitFilter concurrencyLimitFilter) {
+        return registry -> {
+            for (GradientLimiter limiter : concurrencyLimitFilter.getLimiters()) {
+                Gauge.builder("http.server.concurrency.limit", limiter, GradientLimiter::getLimit)
+                        .description("Current adaptive concurrency limit")
+                        .tag("endpoints", limiter.getName())
+                        .register(registry);
+                Gauge.builder("http.server.concurrency.inflight", limiter, GradientLimiter::getInflight)
+                        .description("Requests currently admitted by the concurrency limiter")
+                        .tag("endpoints", limiter.getName())
+                        .register(registry);
+                FunctionCounter.builder("http.server.concurrency.rejected", limiter, GradientLimiter::getRejections)
+                        .description("Requests rejected at the concurrency limit")
+                        .tag("endpoints", limiter.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits for the {@code /api} endpoints, one for reads (GET, HEAD, OPTIONS)
+ * and one for writes. Each limit starts at its initial value and moves between min and max with
+ * the observed latency. A limit shrinks once recent latency exceeds {@code rtt-tolerance} times
+ * the long-term latency, and by {@code backoff-ratio} on every 503. {@code smoothing} is the
+ * share of a new estimate applied per request.
+ */
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("40") int readInitialLimit,
+                                         @DefaultValue("4") int readMinLimit,
+                                         @DefaultValue("200") int readMaxLimit,
+                                         @DefaultValue("20") int writeInitialLimit,
+                                         @DefaultValue("2") int writeMinLimit,
+                                         @DefaultValue("100") int writeMaxLimit,
+                                         @DefaultValue("2.0") double rttTolerance,
+                                         @DefaultValue("0.2") double smoothing,
+                                         @DefaultValue("0.9") double backoffRatio,
+                                         @DefaultValue("1s") Duration retryAfter) {
+}
@@ -0,0 +1,61 @@
+package com.rewe.customerbookingservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * With virtual threads every request gets its own thread, so the Tomcat thread cap no longer
+ * limits how many callers queue on the Hikari pool. Wraps the pool in a {@link PermitLimitedDataSource}.
+ * Runs before the other DataSource post-processors, so it still sees the bare pool; the replica
+ * pool, which is no bean, is wrapped by {@link ReplicaRoutingConfig} through {@link #limit}.
+ */
+@Configuration
+@ConditionalOnProperty(name = DatabasePermitConfig.ENABLED_PROPERTY, havingValue = "true")
+public class DatabasePermitConfig {
+
+    static final String ENABLED_PROPERTY = "spring.threads.virtual.enabled";
+
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    @Bean
+    public static BeanPostProcessor databasePermitPostProcessor(ObjectProvider<DatabasePermitProperties> properties) {
+        return new DatabasePermitPostProcessor(properties);
+    }
+
+    static boolean isEnabled(Environment environment) {
+        return environment.getProperty(ENABLED_PROPERTY, Boolean.class, false);
+    }
+
+    static PermitLimitedDataSource limit(HikariDataSource pool, DatabasePermitProperties properties) {
+        int permits = properties.permits() > 0 ? properties.permits() : pool.getMaximumPoolSize();
+        return new PermitLimitedDataSource(pool, permits, properties.acquireTimeout());
+    }
+
+    private static final class DatabasePermitPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<DatabasePermitProperties> properties;
+
+        private DatabasePermitPostProcessor(ObjectProvider<DatabasePermitProperties> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikariDataSource) {
+                return limit(hikariDataSource, properties.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection permits used with virtual threads. {@code permits} of 0 means the Hikari pool size.
+ */
+@ConfigurationProperties(prefix = "app.db-permits")
+public record DatabasePermitProperties(@DefaultValue("0") int permits,
+                                       @DefaultValue("30s") Duration acquireTimeout) {
+}
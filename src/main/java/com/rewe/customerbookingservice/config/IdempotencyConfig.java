@@ -0,0 +1,35 @@
+package com.rewe.customerbookingservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rewe.customerbookingservice.idempotency.IdempotencyFilter;
+import com.rewe.customerbookingservice.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the {@link IdempotencyFilter}. Expired keys are purged by the
+ * {@code IdempotencyPurgeScheduler}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    /**
+     * Runs inside the SQL statement metrics filter, so replays are recorded with their statements,
+     * and behind the concurrency limit filter, so a shed request does not claim its key.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       IdempotencyProperties properties,
+                                                                       ObjectMapper objectMapper,
+                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, properties.paths(), objectMapper, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * {@code Idempotency-Key} support for the POST endpoints in {@code paths}. Responses are replayed
+ * for {@code ttl}; a request that has not recorded its response after {@code in-progress-timeout}
+ * counts as abandoned and its key can be claimed again. The timeout must stay well above the
+ * longest a POST can run, or a retry could take over the key while the first request still runs.
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue({"/api/bookings", "/api/bookings/bulk", "/api/customers", "/api/brands"})
+                                    Set<String> paths,
+                                    @DefaultValue("24h") Duration ttl,
+                                    @DefaultValue("1h") Duration inProgressTimeout,
+                                    @DefaultValue("10000") long cacheSize,
+                                    @DefaultValue("1h") Duration purgeInterval) {
+}
@@ -0,0 +1,20 @@
+package com.rewe.customerbookingservice.config;
+
+import com.rewe.customerbookingservice.json.BookingJsonModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the hand-written DTO serializers with the application's {@code ObjectMapper}. With
+ * {@code app.json.serialization=standard} Jackson falls back to its reflective bean serializers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.json.serialization", havingValue = "optimized", matchIfMissing = true)
+public class JsonConfig {
+
+    @Bean
+    public BookingJsonModule bookingJsonModule() {
+        return new BookingJsonModule();
+    }
+}
@@ -0,0 +1,152 @@
+package com.rewe.customerbookingservice.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rewe.customerbookingservice.metrics.SqlStatementCounter;
+import com.rewe.customerbookingservice.metrics.SqlStatementMetricsFilter;
+import com.rewe.customerbookingservice.metrics.StatementCountingDataSource;
+import com.rewe.customerbookingservice.services.impl.BrandCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Application specific meters on top of the ones Spring Boot binds for MVC, Hibernate and Hikari.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Runs after {@link ReplicaRoutingConfig}, so the counting wraps the routing and sees the
+     * statements sent to the replica as well.
+     */
+    static final int STATEMENT_COUNTING_ORDER = ReplicaRoutingConfig.ORDER + 10;
+
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Counts at the DataSource, so the JdbcTemplate statements of the repository fragments are
+     * counted along with Hibernate's.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new StatementCountingPostProcessor(sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(SqlStatementCounter sqlStatementCounter,
+                                                                                      MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(sqlStatementCounter, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder brandCacheMetrics(BrandCache brandCache) {
+        return registry -> {
+            bindCacheStats(registry, "brandsById", brandCache::idStats);
+            bindCacheStats(registry, "brandsByShortCode", brandCache::shortCodeStats);
+        };
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hitCount())
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().missCount())
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tags("cache", cache)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder databasePermitMetrics(DataSource dataSource) {
+        return registry -> {
+            PermitLimitedDataSource permits = unwrap(dataSource, PermitLimitedDataSource.class);
+            if (permits == null) {
+                return;
+            }
+            Gauge.builder("db.permits.available", permits, PermitLimitedDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("db.permits.pending", permits, PermitLimitedDataSource::getWaitingThreads)
+                    .register(registry);
+            FunctionCounter.builder("db.permits.acquired", permits, PermitLimitedDataSource::getAcquisitions)
+                    .register(registry);
+            FunctionCounter.builder("db.permits.timeouts", permits, PermitLimitedDataSource::getTimeouts)
+                    .register(registry);
+            FunctionCounter.builder("db.permits.wait", permits, p -> p.getTotalWait().toNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+            TimeGauge.builder("db.permits.wait.max", permits, TimeUnit.NANOSECONDS, p -> p.getMaxWait().toNanos())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(DataSource dataSource) {
+        return registry -> {
+            ReplicaRoutingDataSource routing = unwrap(dataSource, ReplicaRoutingDataSource.class);
+            if (routing == null) {
+                return;
+            }
+            ReplicaDataSource replica = routing.getReplicaDataSource();
+            FunctionCounter.builder("db.replica.connections", replica, ReplicaDataSource::getReplicaConnections)
+                    .register(registry);
+            FunctionCounter.builder("db.replica.fallbacks", replica, ReplicaDataSource::getFallbacks)
+                    .register(registry);
+            TimeGauge.builder("db.replica.lag", replica, TimeUnit.MILLISECONDS, r -> r.getLag().toMillis())
+                    .register(registry);
+        };
+    }
+
+    private static <T extends DataSource> T unwrap(DataSource dataSource, Class<T> type) {
+        DataSource current = dataSource;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = current instanceof DelegatingDataSource delegating ? delegating.getTargetDataSource() : null;
+        }
+        return null;
+    }
+
+    private static final class StatementCountingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SqlStatementCounter> sqlStatementCounter;
+
+        private StatementCountingPostProcessor(ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+            this.sqlStatementCounter = sqlStatementCounter;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                return new StatementCountingDataSource(dataSource, sqlStatementCounter.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return STATEMENT_COUNTING_ORDER;
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package com.rewe.customerbookingservice.config;
 
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "app.mapping.strategy", havingValue = "modelmapper")
 public class ModelMapperConfig {
 
     @Bean
     public ModelMapper modelMapper() {
         ModelMapper modelMapper = new ModelMapper();
         modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STANDARD);
+        // versions are owned by Hibernate, see BaseEntity#version
+        modelMapper.typeMap(BookingDTO.class, Booking.class).addMappings(mapper -> mapper.skip(Booking::setVersion));
+        // so are the booking counters, see CustomerBookingCounters
+        modelMapper.typeMap(CustomerDTO.class, Customer.class).addMappings(mapper -> {
+            mapper.skip(Customer::setVersion);
+            mapper.skip(Customer::setTotalBookings);
+            mapper.skip(Customer::setActiveBookings);
+        });
+        modelMapper.typeMap(BrandDTO.class, Brand.class).addMappings(mapper -> mapper.skip(Brand::setVersion));
         return modelMapper;
     }
 }
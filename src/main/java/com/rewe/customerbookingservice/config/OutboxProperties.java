@@ -0,0 +1,18 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Booking change outbox. {@code sink} is {@code file} (default) or {@code in-memory}.
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public record OutboxProperties(@DefaultValue("true") boolean relayEnabled,
+                               @DefaultValue("1s") Duration pollInterval,
+                               @DefaultValue("500") int batchSize,
+                               @DefaultValue("file") String sink,
+                               @DefaultValue("outbox/booking-events.ndjson") Path file) {
+}
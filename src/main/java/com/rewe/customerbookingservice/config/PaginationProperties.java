@@ -0,0 +1,18 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Page sizes for cursor paginated endpoints. Requested sizes above {@code maxSize} are capped.
+ */
+@ConfigurationProperties(prefix = "app.pagination")
+public record PaginationProperties(@DefaultValue("20") int defaultSize, @DefaultValue("100") int maxSize) {
+
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultSize;
+        }
+        return Math.min(requestedSize, maxSize);
+    }
+}
@@ -0,0 +1,135 @@
+package com.rewe.customerbookingservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Connections for read-only transactions. Hands out replica connections while the replica is
+ * reachable and within {@link ReplicaProperties#maxLag()}, primary connections otherwise.
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long lagCheckIntervalNanos;
+    private final long retryIntervalNanos;
+    private final AtomicLong lastLagCheckNanos;
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile long lagMillis;
+    private volatile long unavailableUntilNanos;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, ReplicaProperties properties) {
+        super(replica);
+        this.primary = primary;
+        this.lagQuery = properties.lagQuery();
+        this.maxLagMillis = properties.maxLag().toMillis();
+        this.lagCheckIntervalNanos = properties.lagCheckInterval().toNanos();
+        this.retryIntervalNanos = properties.retryInterval().toNanos();
+        long now = System.nanoTime();
+        this.lastLagCheckNanos = new AtomicLong(now - lagCheckIntervalNanos);
+        this.unavailableUntilNanos = now;
+    }
+
+    /**
+     * Runs {@code call} with the connections of read-only transactions taken from the primary, for
+     * reads whose result outlives the transaction, such as a cache fill, and must not be stale.
+     */
+    public static <T> T onPrimary(Supplier<T> call) {
+        boolean nested = PRIMARY_REQUIRED.get() != null;
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            if (!nested) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY_REQUIRED.get() != null) {
+            return primary.getConnection();
+        }
+        if (isReplicaUsable()) {
+            try {
+                Connection connection = super.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                markUnavailable(ex);
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    private boolean isReplicaUsable() {
+        long now = System.nanoTime();
+        if (now - unavailableUntilNanos < 0) {
+            return false;
+        }
+        if (!StringUtils.hasText(lagQuery)) {
+            return true;
+        }
+        long lastCheck = lastLagCheckNanos.get();
+        // one caller refreshes the lag, the others go with the last measurement
+        if (now - lastCheck >= lagCheckIntervalNanos && lastLagCheckNanos.compareAndSet(lastCheck, now)) {
+            checkLag();
+        }
+        return now - unavailableUntilNanos >= 0 && lagMillis <= maxLagMillis;
+    }
+
+    private void checkLag() {
+        try (Connection connection = super.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            long lag = resultSet.next() ? (long) (resultSet.getDouble(1) * 1000) : 0;
+            if (lag > maxLagMillis && lagMillis <= maxLagMillis) {
+                log.warn("Replica lags {} ms behind, reading from the primary", lag);
+            }
+            lagMillis = lag;
+        } catch (SQLException ex) {
+            markUnavailable(ex);
+        }
+    }
+
+    private void markUnavailable(SQLException ex) {
+        unavailableUntilNanos = System.nanoTime() + retryIntervalNanos;
+        log.warn("Replica unavailable, reading from the primary for {}", Duration.ofNanos(retryIntervalNanos), ex);
+    }
+
+    public DataSource getPrimaryDataSource() {
+        return primary;
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public Duration getLag() {
+        return Duration.ofMillis(lagMillis);
+    }
+}
@@ -0,0 +1,32 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read replica for read-only transactions, enabled by setting {@code url}. Username and password
+ * default to the primary's. A short {@code connectionTimeout} keeps reads from waiting long on a
+ * replica that is down. {@code lagQuery} returns the replica lag in seconds and is run at most
+ * once per {@code lagCheckInterval}; a blank query skips the check. While the lag exceeds
+ * {@code maxLag}, or for {@code retryInterval} after the replica failed, reads go to the primary.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaProperties(String url,
+                                String username,
+                                String password,
+                                @DefaultValue("10") int maximumPoolSize,
+                                @DefaultValue("1s") Duration connectionTimeout,
+                                @DefaultValue("5s") Duration maxLag,
+                                @DefaultValue("1s") Duration lagCheckInterval,
+                                @DefaultValue(ReplicaProperties.POSTGRES_LAG_QUERY) String lagQuery,
+                                @DefaultValue("30s") Duration retryInterval) {
+
+    /**
+     * Zero when the standby has replayed everything it received, otherwise the age of the last
+     * replayed transaction. Also zero on a server that is not a standby.
+     */
+    public static final String POSTGRES_LAG_QUERY = "select coalesce(case when pg_last_wal_receive_lsn() = "
+            + "pg_last_wal_replay_lsn() then 0 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+}
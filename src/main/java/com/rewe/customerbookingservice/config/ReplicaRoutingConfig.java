@@ -0,0 +1,85 @@
+package com.rewe.customerbookingservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link ReplicaRoutingDataSource} when
+ * {@code app.datasource.replica.url} is set. The replica pool is owned by the wrapper, so it is
+ * not picked up as a second DataSource by Liquibase or Hibernate. Runs after
+ * {@link DatabasePermitConfig}, so the routing wraps the permit limited primary, and limits the
+ * replica pool the same way.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    static final int ORDER = DatabasePermitConfig.ORDER + 10;
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaProperties> replicaProperties,
+                                                                ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                                                ObjectProvider<DatabasePermitProperties> permitProperties,
+                                                                Environment environment) {
+        return new ReplicaRoutingPostProcessor(replicaProperties, dataSourceProperties, permitProperties, environment);
+    }
+
+    private static HikariDataSource replicaPool(ReplicaProperties properties, DataSourceProperties primary) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(properties.url());
+        replica.setUsername(properties.username() != null ? properties.username() : primary.determineUsername());
+        replica.setPassword(properties.password() != null ? properties.password() : primary.determinePassword());
+        replica.setMaximumPoolSize(properties.maximumPoolSize());
+        replica.setConnectionTimeout(properties.connectionTimeout().toMillis());
+        replica.setReadOnly(true);
+        // created on the first read, so a replica that is down does not keep the application from starting
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    private static final class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaProperties> replicaProperties;
+        private final ObjectProvider<DataSourceProperties> dataSourceProperties;
+        private final ObjectProvider<DatabasePermitProperties> permitProperties;
+        private final Environment environment;
+
+        private ReplicaRoutingPostProcessor(ObjectProvider<ReplicaProperties> replicaProperties,
+                                            ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                            ObjectProvider<DatabasePermitProperties> permitProperties,
+                                            Environment environment) {
+            this.replicaProperties = replicaProperties;
+            this.dataSourceProperties = dataSourceProperties;
+            this.permitProperties = permitProperties;
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && "dataSource".equals(beanName)) {
+                ReplicaProperties properties = replicaProperties.getObject();
+                HikariDataSource pool = replicaPool(properties, dataSourceProperties.getObject());
+                DataSource replica = DatabasePermitConfig.isEnabled(environment)
+                        ? DatabasePermitConfig.limit(pool, permitProperties.getObject())
+                        : pool;
+                return new ReplicaRoutingDataSource(primary, new ReplicaDataSource(replica, primary, properties));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
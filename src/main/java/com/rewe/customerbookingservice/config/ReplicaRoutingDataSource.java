@@ -0,0 +1,38 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a {@link ReplicaDataSource} and everything else to the primary.
+ * Connections are fetched lazily on the first statement, by which time the transaction manager has
+ * marked them read-only. Transactions that never reach the database take no connection at all.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final ReplicaDataSource replicaDataSource;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaDataSource replicaDataSource) {
+        super(primary);
+        this.replicaDataSource = replicaDataSource;
+        setReadOnlyDataSource(replicaDataSource);
+    }
+
+    public ReplicaDataSource getReplicaDataSource() {
+        return replicaDataSource;
+    }
+
+    /**
+     * This bean replaces the pools it wraps, so it closes them.
+     */
+    @Override
+    public void close() throws Exception {
+        if (replicaDataSource.getTargetDataSource() instanceof AutoCloseable replica) {
+            replica.close();
+        }
+        if (getTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+}
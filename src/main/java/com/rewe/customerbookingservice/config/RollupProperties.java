@@ -0,0 +1,16 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Daily occupancy rollup. {@code rebuildCron} schedules {@code OccupancyRebuildJob}; {@code -}
+ * (default) leaves it to manual runs. Every day of a booking is a row of the rollup, so bookings
+ * may span at most {@code maxBookingDays} days.
+ */
+@ConfigurationProperties(prefix = "app.rollup")
+public record RollupProperties(@DefaultValue("-") String rebuildCron,
+                               @DefaultValue("4") int rebuildParallelism,
+                               @DefaultValue("100") int rebuildChunkSize,
+                               @DefaultValue("3660") int maxBookingDays) {
+}
@@ -0,0 +1,14 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The only place scheduling is enabled. Each scheduled bean is switched on or off by its own
+ * condition: {@code OutboxRelayScheduler}, {@code OccupancyRebuildScheduler} and
+ * {@code IdempotencyPurgeScheduler}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
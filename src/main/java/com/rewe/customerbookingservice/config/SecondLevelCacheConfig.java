@@ -0,0 +1,33 @@
+package com.rewe.customerbookingservice.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local Caffeine JCache provider for the entities annotated with {@code @Cache}. Hibernate picks up
+ * the JCache region factory on its own, so caching is switched off explicitly when disabled.
+ * Statistics are enabled with the cache, so hit ratios are available from Hibernate's
+ * {@code Statistics} and the JCache {@code CacheStatistics} MBeans.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.enabled());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.enabled());
+            if (properties.enabled()) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+                hibernateProperties.put(ConfigSettings.CONFIG_URI, properties.configUri());
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+                hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.rewe.customerbookingservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Switches the Hibernate second-level and query cache. Regions are configured in {@code configUri}.
+ */
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public record SecondLevelCacheProperties(@DefaultValue("false") boolean enabled,
+                                         @DefaultValue("classpath:hibernate-jcache.conf") String configUri) {
+}
@@ -1,22 +1,44 @@
 package com.rewe.customerbookingservice.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.services.BookingService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper, Validator validator) {
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     @PostMapping
@@ -25,21 +47,116 @@ public class BookingController {
         return new ResponseEntity<>(savedBooking, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BookingDTO>> addBookings(
+            @RequestBody @Size(min = 1, max = 10_000) List<@Valid BookingDTO> bookings) {
+        List<BookingDTO> savedBookings = bookingService.saveBookings(bookings);
+        return new ResponseEntity<>(savedBookings, HttpStatus.CREATED);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Boolean> deleteBooking(@PathVariable @Positive Long id) {
         return ResponseEntity.ok(bookingService.deleteBooking(id));
     }
 
+    /**
+     * Active bookings overlapping the inclusive date window, optionally of one brand and/or customer.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<BookingPageDTO> getBookingsInRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @Positive Long brandId,
+            @RequestParam(required = false) @Positive Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        BookingPageDTO page = bookingService.findBookingsInRange(from, to, brandId, customerId, cursor, size);
+        return ETags.okOrNotModified(page, ETags.of(page), ifNoneMatch);
+    }
+
+    /**
+     * Bookings whose title or description match {@code q}, best match first, optionally of one
+     * brand and/or customer.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<BookingPageDTO> searchBookings(
+            @RequestParam String q,
+            @RequestParam(required = false) @Positive Long brandId,
+            @RequestParam(required = false) @Positive Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        BookingPageDTO page = bookingService.searchBookings(q, brandId, customerId, cursor, size);
+        return ETags.okOrNotModified(page, ETags.of(page), ifNoneMatch);
+    }
+
+    /**
+     * With {@code If-None-Match} the versions are checked first, so an unchanged booking is answered
+     * with 304 without being loaded.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<BookingDTO> getBookingById(@PathVariable @Positive Long id) {
+    public ResponseEntity<BookingDTO> getBookingById(@PathVariable @Positive Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = bookingService.findBookingVersions(id).map(ETags::of);
+            if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         BookingDTO booking = bookingService.findBookingById(id);
-        return ResponseEntity.ok(booking);
+        return ResponseEntity.ok().eTag(ETags.of(booking)).body(booking);
     }
 
+    /**
+     * With {@code If-Match} the update is a single conditional UPDATE, answered with 412 when the
+     * booking has changed in between.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<BookingDTO> updateBooking(@PathVariable @Positive Long id,
-                                                    @Valid @RequestBody BookingDTO bookingDetails) {
-        BookingDTO updatedBooking = bookingService.updateBooking(id, bookingDetails);
-        return ResponseEntity.ok(updatedBooking);
+                                                    @Valid @RequestBody BookingDTO bookingDetails,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookingDTO updatedBooking = ETags.isUnconditional(ifMatch)
+                ? bookingService.updateBooking(id, bookingDetails)
+                : bookingService.updateBooking(id, bookingDetails, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedBooking)).body(updatedBooking);
+    }
+
+    /**
+     * JSON Merge Patch of title, description, active, dates and brand. Only changed columns are
+     * written, and a patch that changes nothing is not written at all.
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatches.MEDIA_TYPE)
+    public ResponseEntity<BookingDTO> patchBooking(@PathVariable @Positive Long id,
+                                                   @RequestBody JsonNode patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookingDTO patchedBooking = bookingService.patchBooking(id, MergePatches.of(patch, objectMapper, validator),
+                ETags.isUnconditional(ifMatch) ? null : ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedBooking)).body(patchedBooking);
+    }
+
+    /**
+     * Streams all bookings as newline delimited JSON, one booking per line.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.setRootValueSeparator(null);
+                bookingService.exportBookings(booking -> {
+                    try {
+                        writer.writeValue(generator, booking);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
@@ -1,16 +1,23 @@
 package com.rewe.customerbookingservice.controllers;
 
-import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
 import com.rewe.customerbookingservice.services.BookingService;
 import com.rewe.customerbookingservice.services.BrandService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Positive;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,17 +26,62 @@ public class BrandController {
 
     private final BrandService brandService;
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    public BrandController(BrandService brandService, BookingService bookingService) {
+    public BrandController(BrandService brandService, BookingService bookingService, ObjectMapper objectMapper,
+                           Validator validator) {
 
         this.brandService = brandService;
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BrandDTO> getBrand(@PathVariable @Positive Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return brandService.findBrandById(id)
+                .map(brand -> ETags.okOrNotModified(brand, ETags.of(brand.getVersion()), ifNoneMatch))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Brands without an active booking overlapping the inclusive date window.
+     */
+    @GetMapping("/available")
+    public ResponseEntity<List<BrandDTO>> getAvailableBrands(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(brandService.findAvailableBrands(from, to));
+    }
+
+    /**
+     * Active bookings of the brand per day of the inclusive date window, at most a year.
+     */
+    @GetMapping("/{id}/occupancy")
+    public ResponseEntity<List<DailyOccupancyDTO>> getOccupancy(
+            @PathVariable @Positive Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(brandService.findOccupancy(id, from, to));
+    }
+
+    @GetMapping("/by-code/{shortCode}")
+    public ResponseEntity<BrandDTO> getBrandByShortCode(@PathVariable String shortCode,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return brandService.findBrandByShortCode(shortCode)
+                .map(brand -> ETags.okOrNotModified(brand, ETags.of(brand.getVersion()), ifNoneMatch))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{brandId}/bookings")
-    public ResponseEntity<List<BookingDTO>> getBookingsByBrand(@PathVariable @Positive Long brandId) {
-        List<BookingDTO> bookings = bookingService.findBookingsByBrandId(brandId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<BookingPageDTO> getBookingsByBrand(@PathVariable @Positive Long brandId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) @Positive Integer size,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        BookingPageDTO bookings = bookingService.findBookingsByBrandId(brandId, cursor, size);
+        return ETags.okOrNotModified(bookings, ETags.of(bookings), ifNoneMatch);
     }
 
     @PostMapping
@@ -40,9 +92,21 @@ public class BrandController {
 
     @PutMapping("/{id}")
     public ResponseEntity<BrandDTO> updateBrand(@PathVariable @Positive Long id,
-                                                @Valid @RequestBody BrandDTO brand) {
-        BrandDTO updatedBrand = brandService.updateBrand(id, brand);
-        return ResponseEntity.ok(updatedBrand);
+                                                @Valid @RequestBody BrandDTO brand,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BrandDTO updatedBrand = ETags.isUnconditional(ifMatch)
+                ? brandService.updateBrand(id, brand)
+                : brandService.updateBrand(id, brand, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedBrand.getVersion())).body(updatedBrand);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatches.MEDIA_TYPE)
+    public ResponseEntity<BrandDTO> patchBrand(@PathVariable @Positive Long id,
+                                               @RequestBody JsonNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BrandDTO patchedBrand = brandService.patchBrand(id, MergePatches.of(patch, objectMapper, validator),
+                ETags.isUnconditional(ifMatch) ? null : ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedBrand.getVersion())).body(patchedBrand);
     }
 
     @DeleteMapping("/{id}")
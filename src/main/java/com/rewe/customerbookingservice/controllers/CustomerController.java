@@ -1,34 +1,56 @@
 package com.rewe.customerbookingservice.controllers;
 
-import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
 import com.rewe.customerbookingservice.services.BookingService;
 import com.rewe.customerbookingservice.services.CustomerService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Positive;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerController {
 
     private final CustomerService customerService;
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
-    public CustomerController(CustomerService customerService, BookingService bookingService) {
+    public CustomerController(CustomerService customerService, BookingService bookingService,
+                              ObjectMapper objectMapper, Validator validator) {
         this.bookingService = bookingService;
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Carries {@code totalBookings} and {@code activeBookings}, so showing a booking count does not
+     * need the booking list.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CustomerDTO> getCustomer(@PathVariable @Positive Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return customerService.findCustomerById(id)
+                .map(customer -> ETags.okOrNotModified(customer, ETags.of(customer), ifNoneMatch))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{customerId}/bookings")
-    public ResponseEntity<List<BookingDTO>> getBookingsForCustomer(@PathVariable @Positive Long customerId) {
-        List<BookingDTO> bookings = bookingService.findBookingsByCustomerId(customerId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<BookingPageDTO> getBookingsForCustomer(@PathVariable @Positive Long customerId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) @Positive Integer size,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        BookingPageDTO bookings = bookingService.findBookingsByCustomerId(customerId, cursor, size);
+        return ETags.okOrNotModified(bookings, ETags.of(bookings), ifNoneMatch);
     }
 
     @PostMapping
@@ -39,9 +61,21 @@ public class CustomerController {
 
     @PutMapping("/{id}")
     public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable @Positive Long id,
-                                                      @Valid @RequestBody CustomerDTO customer) {
-        CustomerDTO updatedCustomer = customerService.updateCustomer(id, customer);
-        return ResponseEntity.ok(updatedCustomer);
+                                                      @Valid @RequestBody CustomerDTO customer,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CustomerDTO updatedCustomer = ETags.isUnconditional(ifMatch)
+                ? customerService.updateCustomer(id, customer)
+                : customerService.updateCustomer(id, customer, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedCustomer)).body(updatedCustomer);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatches.MEDIA_TYPE)
+    public ResponseEntity<CustomerDTO> patchCustomer(@PathVariable @Positive Long id,
+                                                     @RequestBody JsonNode patch,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CustomerDTO patchedCustomer = customerService.patchCustomer(id, MergePatches.of(patch, objectMapper, validator),
+                ETags.isUnconditional(ifMatch) ? null : ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedCustomer)).body(patchedCustomer);
     }
 
     @DeleteMapping("/{id}")
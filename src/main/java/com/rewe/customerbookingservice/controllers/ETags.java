@@ -0,0 +1,137 @@
+package com.rewe.customerbookingservice.controllers;
+
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BookingVersionsDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags built from entity versions instead of response bodies, so they can be compared
+ * before anything is mapped or serialized.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * The booking counters change without the customer's version, so they are part of its ETag:
+     * {@code "<version>.<totalBookings>.<activeBookings>"}.
+     */
+    static String of(CustomerDTO customer) {
+        return "\"" + (customer.getVersion() == null ? 0 : customer.getVersion()) + "."
+                + customer.getTotalBookings() + "." + customer.getActiveBookings() + "\"";
+    }
+
+    /**
+     * A booking is rendered with its brand and customer, so their versions are part of its ETag:
+     * {@code "<booking>.<brand>.<customer>"}, with {@code -} for a missing association and the
+     * customer as {@code <version>-<totalBookings>-<activeBookings>} once its counters are known.
+     */
+    static String of(BookingVersionsDTO versions) {
+        String customer = orDash(versions.customerVersion());
+        if (versions.customerVersion() != null && versions.customerTotalBookings() != null) {
+            customer += "-" + versions.customerTotalBookings() + "-" + versions.customerActiveBookings();
+        }
+        return "\"" + versions.version() + "." + orDash(versions.brandVersion()) + "." + customer + "\"";
+    }
+
+    static String of(BookingDTO booking) {
+        CustomerDTO customer = booking.getCustomer();
+        return of(new BookingVersionsDTO(booking.getVersion() == null ? 0 : booking.getVersion(),
+                booking.getBrand() == null ? null : booking.getBrand().getVersion(),
+                customer == null ? null : customer.getVersion(),
+                customer == null ? null : customer.getTotalBookings(),
+                customer == null ? null : customer.getActiveBookings()));
+    }
+
+    /**
+     * SHA-256 over ids and ETags of the page's bookings and the next cursor. A strong validator
+     * must not collide, so this is a digest rather than a hash code.
+     */
+    static String of(BookingPageDTO page) {
+        StringBuilder content = new StringBuilder();
+        for (BookingDTO booking : page.getBookings()) {
+            content.append(booking.getId()).append(' ').append(of(booking)).append('\n');
+        }
+        content.append(page.getNextCursor());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Weak comparison against an {@code If-None-Match} header, as RFC 9110 requires for it.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 with the ETag when {@code If-None-Match} matches, otherwise 200 with body and ETag.
+     */
+    static <T> ResponseEntity<T> okOrNotModified(T body, String etag, String ifNoneMatch) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * The entity version of a single strong {@code If-Match} ETag. For bookings only the booking's
+     * own version is used, the update does not change brand or customer; for customers the
+     * counters are ignored, an update does not change them.
+     */
+    static long expectedVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/") || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag, got " + ifMatch);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.indexOf('.');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unknown ETag " + ifMatch);
+        }
+    }
+
+    /**
+     * Without {@code If-Match}, or with {@code *}, updates run unconditionally.
+     */
+    static boolean isUnconditional(String ifMatch) {
+        return ifMatch == null || ifMatch.trim().equals("*");
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String orDash(Long version) {
+        return version == null ? "-" : version.toString();
+    }
+}
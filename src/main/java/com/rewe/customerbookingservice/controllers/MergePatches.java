@@ -0,0 +1,47 @@
+package com.rewe.customerbookingservice.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * JSON Merge Patch (RFC 7396) applied to the current DTO: members that are present replace the
+ * current value, {@code null} clears it, absent members are kept. Nested objects are replaced as a
+ * whole, which for a booking's brand means switching to the brand with the given id.
+ */
+final class MergePatches {
+
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatches() {
+    }
+
+    /**
+     * The returned operator patches the DTO in place and validates the result like a request body.
+     */
+    static <T> UnaryOperator<T> of(JsonNode patch, ObjectMapper objectMapper, Validator validator) {
+        if (patch == null || !patch.isObject()) {
+            throw new ValidationException("A merge patch must be a JSON object");
+        }
+        return current -> {
+            T patched;
+            try {
+                patched = objectMapper.readerForUpdating(current).readValue(patch);
+            } catch (IOException e) {
+                throw new ValidationException(e.getMessage(), e);
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(patched);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            return patched;
+        };
+    }
+}
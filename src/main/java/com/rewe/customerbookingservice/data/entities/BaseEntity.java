@@ -4,11 +4,13 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -22,11 +24,21 @@ import java.time.Instant;
 @Setter
 public class BaseEntity {
 
+    /**
+     * Pooled per-entity sequence ({@code booking_seq}, {@code customer_seq}, {@code brand_seq}) so inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
     @CreationTimestamp
     private Instant created;
     @UpdateTimestamp
     private Instant updated;
+    /**
+     * Primitive on purpose: references built from a DTO id carry version 0 and are not taken for
+     * transient instances, which a {@code null} version would be.
+     */
+    @Version
+    @ColumnDefault("0")
+    private long version;
 }
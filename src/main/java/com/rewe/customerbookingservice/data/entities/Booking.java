@@ -6,12 +6,17 @@ import jakarta.persistence.ManyToOne;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.time.LocalDate;
 
+/**
+ * Updates write only the changed columns, so toggling {@code active} leaves the description alone.
+ */
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
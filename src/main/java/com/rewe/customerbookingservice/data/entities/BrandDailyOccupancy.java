@@ -0,0 +1,53 @@
+package com.rewe.customerbookingservice.data.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Active bookings of a brand per day, kept up to date by {@code OccupancyRollup} and recomputed
+ * by {@code OccupancyRebuildJob}.
+ */
+@Entity
+@IdClass(BrandDailyOccupancy.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BrandDailyOccupancy {
+
+    @Id
+    private Long brandId;
+    @Id
+    private LocalDate occupancyDate;
+    private int activeBookings;
+
+    /**
+     * Ordered by brand and day, the order in which rows are written to avoid deadlocks.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable, Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::getBrandId)
+                .thenComparing(Key::getOccupancyDate);
+
+        private Long brandId;
+        private LocalDate occupancyDate;
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.rewe.customerbookingservice.data.entities;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +31,16 @@ public class Customer extends BaseEntity {
     private String email;
     private boolean active;
     private int age;
+    /**
+     * Maintained by {@code CustomerBookingCounters} on every booking write, never set from a DTO.
+     * Not updatable, since the version does not guard them against a customer update.
+     */
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private long totalBookings;
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private long activeBookings;
     @OneToMany(mappedBy = "customer", fetch = FetchType.LAZY, orphanRemoval = true, cascade = CascadeType.PERSIST)
     private List<Booking> bookings;
 }
\ No newline at end of file
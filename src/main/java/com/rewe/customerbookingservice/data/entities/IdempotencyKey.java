@@ -0,0 +1,41 @@
+package com.rewe.customerbookingservice.data.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The response to a POST sent with an {@code Idempotency-Key} header, see {@code IdempotencyFilter}.
+ * The id is the request path and the key. Until the response is recorded {@code responseStatus}
+ * is {@code null} and the key is claimed by the request still running.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "responseBody")
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 320)
+    private String id;
+    @Column(length = 64, nullable = false)
+    private String requestHash;
+    private Integer responseStatus;
+    @Column(length = 100)
+    private String contentType;
+    /**
+     * Gzip compressed.
+     */
+    @Column(length = 16_777_216)
+    private byte[] responseBody;
+    @Column(nullable = false)
+    private Instant createdAt;
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
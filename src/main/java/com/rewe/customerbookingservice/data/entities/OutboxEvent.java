@@ -0,0 +1,36 @@
+package com.rewe.customerbookingservice.data.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Change event written in the same transaction as the change itself and published later by
+ * {@code OutboxRelay}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+    private Long aggregateId;
+    @Column(length = 32)
+    private String eventType;
+    @Column(length = 1000)
+    private String payload;
+    @CreationTimestamp
+    private Instant createdAt;
+}
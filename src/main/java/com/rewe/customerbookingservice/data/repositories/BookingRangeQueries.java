@@ -0,0 +1,18 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Date window queries whose filters are optional, see {@link BookingRangeQueriesImpl}.
+ */
+public interface BookingRangeQueries {
+
+    /**
+     * Active bookings overlapping {@code [from, to]}, both inclusive, ordered by id and starting
+     * after {@code afterId}. {@code null} brand or customer ids are not filtered on.
+     */
+    List<Booking> findActiveInRange(LocalDate from, LocalDate to, Long brandId, Long customerId, long afterId, int limit);
+}
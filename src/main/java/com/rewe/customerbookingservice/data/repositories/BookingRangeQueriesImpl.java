@@ -0,0 +1,47 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Adds only the filters that are set, instead of {@code (:brandId is null or ...)} conditions that
+ * keep the database from choosing the {@code brand_id} or {@code customer_id} index.
+ */
+class BookingRangeQueriesImpl implements BookingRangeQueries {
+
+    private final EntityManager entityManager;
+
+    BookingRangeQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Booking> findActiveInRange(LocalDate from, LocalDate to, Long brandId, Long customerId, long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select b from Booking b left join fetch b.brand left join fetch b.customer "
+                + "where b.active = true and b.startDate <= :to and b.endDate >= :from and b.id > :afterId");
+        if (brandId != null) {
+            jpql.append(" and b.brand.id = :brandId");
+        }
+        if (customerId != null) {
+            jpql.append(" and b.customer.id = :customerId");
+        }
+        jpql.append(" order by b.id");
+
+        TypedQuery<Booking> query = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit);
+        if (brandId != null) {
+            query.setParameter("brandId", brandId);
+        }
+        if (customerId != null) {
+            query.setParameter("customerId", customerId);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,14 +1,154 @@
 package com.rewe.customerbookingservice.data.repositories;
 
 import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import com.rewe.customerbookingservice.dtos.BookingVersionsDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRangeQueries, BookingSearch {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    String CONDITIONAL_UPDATE = "update Booking b set b.title = :title, b.description = :description, "
+            + "b.active = :active, b.startDate = :startDate, b.endDate = :endDate, b.updated = :updated, "
+            + "b.version = b.version + 1";
+    String VERSION_MATCHES = " where b.id = :id and b.version = :version";
+    String PERIOD = "select new com.rewe.customerbookingservice.dtos.BookingPeriodDTO("
+            + "b.id, b.brand.id, b.customer.id, b.active, b.startDate, b.endDate, b.version) from Booking b";
+
+    @Override
+    @EntityGraph(attributePaths = {"brand", "customer"})
+    List<Booking> findAll();
+
+    @EntityGraph(attributePaths = {"brand", "customer"})
+    Optional<Booking> findWithBrandAndCustomerById(Long id);
+
+    @EntityGraph(attributePaths = {"brand", "customer"})
+    List<Booking> findWithBrandAndCustomerByIdIn(Collection<Long> ids);
+
+    /**
+     * Fetches only the customers; callers take the brand from {@code BrandService}.
+     */
+    @EntityGraph(attributePaths = {"customer"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Booking> findByBrandId(Long brandId);
 
+    @EntityGraph(attributePaths = {"brand", "customer"})
     List<Booking> findByCustomerId(Long customerId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"customer"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Booking> findByBrandIdAndIdGreaterThanOrderByIdAsc(Long brandId, Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"brand", "customer"})
+    List<Booking> findByCustomerIdAndIdGreaterThanOrderByIdAsc(Long customerId, Long id, Limit limit);
+
+    /**
+     * Streams all bookings through a JDBC cursor, {@link #STREAM_FETCH_SIZE} rows per round trip.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Booking b left join fetch b.brand left join fetch b.customer order by b.id")
+    Stream<Booking> streamAll();
+
+    /**
+     * Single DELETE statement, returns the number of removed rows.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Booking b where b.id = :id")
+    int deleteBookingById(@Param("id") Long id);
+
+    /**
+     * Removes all bookings of a customer without loading them.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Booking b where b.customer.id = :customerId")
+    int deleteBookingsByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Whether another active booking of the brand overlaps {@code [startDate, endDate]}. Uses the
+     * {@code (brand_id, start_date)} index; Postgres also enforces this with {@code ex_booking_brand_period}.
+     */
+    @Query("select case when count(b) > 0 then true else false end from Booking b "
+            + "where b.brand.id = :brandId and b.active = true and b.id <> :excludedId "
+            + "and b.startDate <= :endDate and b.endDate >= :startDate")
+    boolean existsActiveOverlap(@Param("brandId") Long brandId, @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate, @Param("excludedId") Long excludedId);
+
+    /**
+     * Versions for the booking's ETag, without loading the booking or its associations.
+     */
+    @Query("select new com.rewe.customerbookingservice.dtos.BookingVersionsDTO(b.version, br.version, c.version, "
+            + "c.totalBookings, c.activeBookings) "
+            + "from Booking b left join b.brand br left join b.customer c where b.id = :id")
+    Optional<BookingVersionsDTO> findVersionsById(@Param("id") Long id);
+
+    /**
+     * The booking's occupancy period, locked until the transaction ends so it cannot change before
+     * the booking is updated or deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(PERIOD + " where b.id = :id")
+    Optional<BookingPeriodDTO> lockPeriodById(@Param("id") Long id);
+
+    /**
+     * Like {@link #lockPeriodById} for all bookings of a customer.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(PERIOD + " where b.customer.id = :customerId")
+    List<BookingPeriodDTO> lockPeriodsByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Active, dated bookings of the brands in {@code [fromBrandId, toBrandId]}, for rebuilding the
+     * occupancy rollup.
+     */
+    @Query(PERIOD + " where b.brand.id between :fromBrandId and :toBrandId and b.active = true "
+            + "and b.startDate is not null and b.endDate is not null")
+    List<BookingPeriodDTO> findActivePeriodsByBrandIdBetween(@Param("fromBrandId") Long fromBrandId,
+                                                             @Param("toBrandId") Long toBrandId);
+
+    /**
+     * Single conditional UPDATE that keeps the brand. Returns 0 when the booking does not exist or
+     * has another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(CONDITIONAL_UPDATE + VERSION_MATCHES)
+    int updateIfVersionMatches(@Param("id") Long id, @Param("version") long version,
+                               @Param("title") String title, @Param("description") String description,
+                               @Param("active") boolean active, @Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate, @Param("updated") Instant updated);
+
+    /**
+     * Like {@link #updateIfVersionMatches} but also replaces the brand.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(CONDITIONAL_UPDATE + ", b.brand = :brand" + VERSION_MATCHES)
+    int updateWithBrandIfVersionMatches(@Param("id") Long id, @Param("version") long version,
+                                        @Param("title") String title, @Param("description") String description,
+                                        @Param("active") boolean active, @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate, @Param("updated") Instant updated,
+                                        @Param("brand") Brand brand);
+}
@@ -0,0 +1,15 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import java.util.List;
+
+/**
+ * Text search over booking titles and descriptions, see {@link BookingSearchImpl}.
+ */
+public interface BookingSearch {
+
+    /**
+     * Ids of the bookings matching {@code query}, best match first and then by id, skipping
+     * {@code offset} matches. {@code null} brand or customer ids are not filtered on.
+     */
+    List<Long> searchIds(String query, Long brandId, Long customerId, long offset, int limit);
+}
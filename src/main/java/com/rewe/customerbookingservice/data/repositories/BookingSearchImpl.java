@@ -0,0 +1,82 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Uses the {@code search_vector} column and its GIN index from the Liquibase changelog when the
+ * table has it: words are matched with {@code websearch_to_tsquery} and ranked with
+ * {@code ts_rank}, title words weighing more than description words. Schemas without the column,
+ * such as the Hibernate generated ones of tests and benchmarks, fall back to a case-insensitive
+ * substring match of the whole query that ranks title matches first.
+ */
+class BookingSearchImpl implements BookingSearch {
+
+    private static final String FULL_TEXT = "select b.id from booking b, websearch_to_tsquery('simple', ?) q "
+            + "where b.search_vector @@ q";
+    private static final String FULL_TEXT_ORDER = " order by ts_rank(b.search_vector, q) desc, b.id limit ? offset ?";
+    private static final String SUBSTRING = "select b.id from booking b "
+            + "where (lower(b.title) like ? escape '\\' or lower(b.description) like ? escape '\\')";
+    private static final String SUBSTRING_ORDER = " order by case when lower(b.title) like ? escape '\\' then 0 else 1 end, "
+            + "b.id limit ? offset ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean fullText;
+
+    BookingSearchImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> searchIds(String query, Long brandId, Long customerId, long offset, int limit) {
+        boolean fullText = hasSearchVector();
+        String pattern = "%" + escapeLike(query.toLowerCase(Locale.ROOT)) + "%";
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(fullText ? FULL_TEXT : SUBSTRING);
+        if (fullText) {
+            args.add(query);
+        } else {
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (brandId != null) {
+            sql.append(" and b.brand_id = ?");
+            args.add(brandId);
+        }
+        if (customerId != null) {
+            sql.append(" and b.customer_id = ?");
+            args.add(customerId);
+        }
+        if (fullText) {
+            sql.append(FULL_TEXT_ORDER);
+        } else {
+            sql.append(SUBSTRING_ORDER);
+            args.add(pattern);
+        }
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    private boolean hasSearchVector() {
+        Boolean present = fullText;
+        if (present == null) {
+            present = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                try (ResultSet columns = connection.getMetaData().getColumns(null, null, "booking", "search_vector")) {
+                    return columns.next();
+                }
+            });
+            fullText = present;
+        }
+        return present;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
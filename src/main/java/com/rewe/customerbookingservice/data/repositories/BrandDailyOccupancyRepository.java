@@ -0,0 +1,26 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BrandDailyOccupancyRepository
+        extends JpaRepository<BrandDailyOccupancy, BrandDailyOccupancy.Key>, OccupancyWrites {
+
+    /**
+     * Stored days of the brand within {@code [from, to]}, ordered by day. A range scan of the
+     * {@code (brand_id, occupancy_date)} primary key; days without a row had no active booking.
+     */
+    @Query("select new com.rewe.customerbookingservice.dtos.DailyOccupancyDTO(o.occupancyDate, o.activeBookings) "
+            + "from BrandDailyOccupancy o where o.brandId = :brandId and o.occupancyDate between :from and :to "
+            + "order by o.occupancyDate")
+    List<DailyOccupancyDTO> findDailyOccupancy(@Param("brandId") Long brandId, @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+}
@@ -2,8 +2,45 @@ package com.rewe.customerbookingservice.data.repositories;
 
 import com.rewe.customerbookingservice.data.entities.Brand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BrandRepository extends JpaRepository<Brand, Long> {
+
+    Optional<Brand> findFirstByShortCodeOrderByIdAsc(String shortCode);
+
+    @Query("select b.id from Brand b order by b.id")
+    List<Long> findAllIds();
+
+    /**
+     * Brands without an active booking overlapping {@code [from, to]}, both inclusive.
+     */
+    @Query("select br from Brand br where not exists (select b.id from Booking b where b.brand = br "
+            + "and b.active = true and b.startDate <= :to and b.endDate >= :from) order by br.id")
+    List<Brand> findAvailableBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Single DELETE statement, returns the number of removed rows.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Brand b where b.id = :id")
+    int deleteBrandById(@Param("id") Long id);
+
+    /**
+     * Single conditional UPDATE, returns 0 when the brand does not exist or has another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Brand b set b.name = :name, b.address = :address, b.shortCode = :shortCode, "
+            + "b.updated = :updated, b.version = b.version + 1 where b.id = :id and b.version = :version")
+    int updateIfVersionMatches(@Param("id") Long id, @Param("version") long version, @Param("name") String name,
+                               @Param("address") String address, @Param("shortCode") String shortCode,
+                               @Param("updated") Instant updated);
 }
@@ -0,0 +1,17 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.dtos.BookingCountsDTO;
+
+import java.util.SortedMap;
+
+/**
+ * Plain JDBC writes to the customer booking counters, see {@link CustomerCounterWritesImpl}.
+ */
+public interface CustomerCounterWrites {
+
+    /**
+     * Adds the deltas to the counters of each customer, one UPDATE per customer in a single batch.
+     * The customer's version is not changed.
+     */
+    void addBookingCounts(SortedMap<Long, BookingCountsDTO> deltas);
+}
@@ -0,0 +1,34 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.dtos.BookingCountsDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SortedMap;
+
+/**
+ * Increments in the UPDATE itself, so the customer row is locked only by the statement and not
+ * read first. Runs outside Hibernate on purpose: a JPQL or native bulk update would evict the
+ * whole {@code Customer} second-level cache region, instead of the one entry the caller evicts.
+ * The version is left alone, so booking writes do not fail concurrent If-Match customer updates.
+ */
+class CustomerCounterWritesImpl implements CustomerCounterWrites {
+
+    private static final String INCREMENT = "update customer set total_bookings = total_bookings + ?, "
+            + "active_bookings = active_bookings + ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    CustomerCounterWritesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addBookingCounts(SortedMap<Long, BookingCountsDTO> deltas) {
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT, deltas.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue().totalBookings(), entry.getValue().activeBookings(),
+                            entry.getKey()})
+                    .toList());
+        }
+    }
+}
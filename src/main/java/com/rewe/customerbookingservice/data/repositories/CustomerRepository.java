@@ -2,8 +2,31 @@ package com.rewe.customerbookingservice.data.repositories;
 
 import com.rewe.customerbookingservice.data.entities.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerCounterWrites {
+
+    /**
+     * Single DELETE statement, returns the number of removed rows. Bookings are not removed,
+     * see {@link BookingRepository#deleteBookingsByCustomerId(Long)}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Customer c where c.id = :id")
+    int deleteCustomerById(@Param("id") Long id);
+
+    /**
+     * Single conditional UPDATE, returns 0 when the customer does not exist or has another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.name = :name, c.email = :email, c.active = :active, c.age = :age, "
+            + "c.updated = :updated, c.version = c.version + 1 where c.id = :id and c.version = :version")
+    int updateIfVersionMatches(@Param("id") Long id, @Param("version") long version, @Param("name") String name,
+                               @Param("email") String email, @Param("active") boolean active, @Param("age") int age,
+                               @Param("updated") Instant updated);
 }
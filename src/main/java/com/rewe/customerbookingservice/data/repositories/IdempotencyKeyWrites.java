@@ -0,0 +1,35 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.IdempotencyKey;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Single statement reads and writes of idempotency keys, see {@link IdempotencyKeyWritesImpl}.
+ */
+public interface IdempotencyKeyWrites {
+
+    /**
+     * Inserts the key, or takes over an existing one whose request was abandoned before
+     * {@code staleBefore} or whose response expired. Returns whether the caller now owns the key.
+     */
+    boolean claim(String id, String requestHash, Instant now, Instant expiresAt, Instant staleBefore);
+
+    /**
+     * The key as stored on the primary, including the response if it has been recorded.
+     */
+    Optional<IdempotencyKey> findKey(String id);
+
+    /**
+     * Records the response of a claimed key. Returns {@code false} if the claim was lost meanwhile.
+     */
+    boolean complete(String id, String requestHash, int responseStatus, String contentType, byte[] responseBody);
+
+    /**
+     * Gives up a claimed key without a response, so that a retry executes the request again.
+     */
+    void release(String id, String requestHash);
+
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,78 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.IdempotencyKey;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Runs every statement on its own outside of the request's transactions, so a claim is visible to
+ * concurrent duplicates as soon as it is made, and always on the primary: a lagging replica could
+ * miss a claim or a recorded response. The primary key decides between concurrent claims.
+ */
+class IdempotencyKeyWritesImpl implements IdempotencyKeyWrites {
+
+    private static final String INSERT = "insert into idempotency_key (id, request_hash, created_at, expires_at) "
+            + "values (?, ?, ?, ?)";
+    private static final String TAKE_OVER = "update idempotency_key set request_hash = ?, response_status = null, "
+            + "content_type = null, response_body = null, created_at = ?, expires_at = ? "
+            + "where id = ? and ((response_status is null and created_at < ?) or expires_at < ?)";
+    private static final String SELECT = "select id, request_hash, response_status, content_type, response_body, "
+            + "created_at, expires_at from idempotency_key where id = ?";
+    private static final String COMPLETE = "update idempotency_key set response_status = ?, content_type = ?, "
+            + "response_body = ? where id = ? and request_hash = ? and response_status is null";
+    private static final String RELEASE = "delete from idempotency_key "
+            + "where id = ? and request_hash = ? and response_status is null";
+    private static final String DELETE_EXPIRED = "delete from idempotency_key where expires_at < ?";
+
+    private static final RowMapper<IdempotencyKey> ROW_MAPPER = (rs, rowNum) -> IdempotencyKey.builder()
+            .id(rs.getString("id"))
+            .requestHash(rs.getString("request_hash"))
+            .responseStatus(rs.getObject("response_status", Integer.class))
+            .contentType(rs.getString("content_type"))
+            .responseBody(rs.getBytes("response_body"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .expiresAt(rs.getTimestamp("expires_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    IdempotencyKeyWritesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean claim(String id, String requestHash, Instant now, Instant expiresAt, Instant staleBefore) {
+        try {
+            jdbcTemplate.update(INSERT, id, requestHash, Timestamp.from(now), Timestamp.from(expiresAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update(TAKE_OVER, requestHash, Timestamp.from(now), Timestamp.from(expiresAt), id,
+                    Timestamp.from(staleBefore), Timestamp.from(now)) == 1;
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyKey> findKey(String id) {
+        return jdbcTemplate.query(SELECT, ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public boolean complete(String id, String requestHash, int responseStatus, String contentType, byte[] responseBody) {
+        return jdbcTemplate.update(COMPLETE, responseStatus, contentType, responseBody, id, requestHash) == 1;
+    }
+
+    @Override
+    public void release(String id, String requestHash) {
+        jdbcTemplate.update(RELEASE, id, requestHash);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(now));
+    }
+}
@@ -0,0 +1,21 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+
+import java.util.SortedMap;
+
+/**
+ * Plain JDBC writes to {@code brand_daily_occupancy}, see {@link OccupancyWritesImpl}.
+ */
+public interface OccupancyWrites {
+
+    /**
+     * Adds every delta to the count of its brand and day, creating missing rows, in one batch.
+     */
+    void applyDeltas(SortedMap<BrandDailyOccupancy.Key, Integer> deltas);
+
+    /**
+     * Replaces all rows of the brands in {@code [fromBrandId, toBrandId]} with {@code counts}.
+     */
+    void replaceCounts(long fromBrandId, long toBrandId, SortedMap<BrandDailyOccupancy.Key, Integer> counts);
+}
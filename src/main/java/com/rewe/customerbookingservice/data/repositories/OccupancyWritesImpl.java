@@ -0,0 +1,71 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Upserts that add to the stored count instead of reading and rewriting it, so concurrent booking
+ * changes of the same brand and day do not lose each other's deltas. Postgres gets
+ * {@code ON CONFLICT}; other databases, such as H2 in the benchmarks, get a standard {@code MERGE}.
+ */
+class OccupancyWritesImpl implements OccupancyWrites {
+
+    private static final String POSTGRES_UPSERT = "insert into brand_daily_occupancy "
+            + "(brand_id, occupancy_date, active_bookings) values (?, ?, ?) "
+            + "on conflict (brand_id, occupancy_date) "
+            + "do update set active_bookings = brand_daily_occupancy.active_bookings + excluded.active_bookings";
+    private static final String MERGE_UPSERT = "merge into brand_daily_occupancy o "
+            + "using (select cast(? as bigint) as brand_id, cast(? as date) as occupancy_date, "
+            + "cast(? as integer) as delta) d "
+            + "on o.brand_id = d.brand_id and o.occupancy_date = d.occupancy_date "
+            + "when matched then update set active_bookings = o.active_bookings + d.delta "
+            + "when not matched then insert (brand_id, occupancy_date, active_bookings) "
+            + "values (d.brand_id, d.occupancy_date, d.delta)";
+    private static final String INSERT = "insert into brand_daily_occupancy "
+            + "(brand_id, occupancy_date, active_bookings) values (?, ?, ?)";
+    private static final String DELETE_BRANDS = "delete from brand_daily_occupancy where brand_id between ? and ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsert;
+
+    OccupancyWritesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyDeltas(SortedMap<BrandDailyOccupancy.Key, Integer> deltas) {
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(upsert(), rows(deltas));
+        }
+    }
+
+    @Override
+    public void replaceCounts(long fromBrandId, long toBrandId, SortedMap<BrandDailyOccupancy.Key, Integer> counts) {
+        jdbcTemplate.update(DELETE_BRANDS, fromBrandId, toBrandId);
+        if (!counts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows(counts));
+        }
+    }
+
+    private String upsert() {
+        String sql = upsert;
+        if (sql == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(database) ? POSTGRES_UPSERT : MERGE_UPSERT;
+            upsert = sql;
+        }
+        return sql;
+    }
+
+    private static List<Object[]> rows(Map<BrandDailyOccupancy.Key, Integer> values) {
+        return values.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey().getBrandId(), entry.getKey().getOccupancyDate(), entry.getValue()})
+                .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.rewe.customerbookingservice.data.repositories;
+
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events not locked by another relay, locked until the transaction ends. A lock timeout
+     * of -2 is Hibernate's {@code SKIP LOCKED}, so concurrent relays claim disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> claimBatch(Limit limit);
+
+    /**
+     * Single DELETE statement for a relayed batch.
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
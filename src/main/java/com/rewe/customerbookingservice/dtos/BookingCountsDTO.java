@@ -0,0 +1,15 @@
+package com.rewe.customerbookingservice.dtos;
+
+/**
+ * A customer's booking counters, or a change to them.
+ */
+public record BookingCountsDTO(long totalBookings, long activeBookings) {
+
+    public BookingCountsDTO plus(BookingCountsDTO other) {
+        return new BookingCountsDTO(totalBookings + other.totalBookings, activeBookings + other.activeBookings);
+    }
+
+    public boolean isZero() {
+        return totalBookings == 0 && activeBookings == 0;
+    }
+}
@@ -15,6 +15,10 @@ import java.time.LocalDateTime;
 @Builder
 public class BookingDTO {
     private Long id;
+    /**
+     * Version of the booking itself. Its ETag also covers the brand and customer versions.
+     */
+    private Long version;
     @Size(min = 3, max = 100, message = "title must be between 3 and 100 characters")
     private String title;
     private String description;
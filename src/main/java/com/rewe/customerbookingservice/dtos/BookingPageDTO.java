@@ -0,0 +1,20 @@
+package com.rewe.customerbookingservice.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@EqualsAndHashCode
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Builder
+public class BookingPageDTO {
+    private List<BookingDTO> bookings;
+    /**
+     * Opaque cursor to pass as {@code cursor} for the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
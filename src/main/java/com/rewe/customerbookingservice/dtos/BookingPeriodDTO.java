@@ -0,0 +1,11 @@
+package com.rewe.customerbookingservice.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * The part of a booking that counts towards its brand's daily occupancy and its customer's
+ * booking counters, with its id for the delete events of bulk deletes.
+ */
+public record BookingPeriodDTO(Long id, Long brandId, Long customerId, boolean active, LocalDate startDate,
+                               LocalDate endDate, long version) {
+}
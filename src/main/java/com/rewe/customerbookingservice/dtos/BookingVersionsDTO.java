@@ -0,0 +1,13 @@
+package com.rewe.customerbookingservice.dtos;
+
+/**
+ * Versions that make up a booking's ETag, read without loading the booking. The customer's
+ * booking counters are included, they change without its version.
+ */
+public record BookingVersionsDTO(long version, Long brandVersion, Long customerVersion,
+                                 Long customerTotalBookings, Long customerActiveBookings) {
+
+    public BookingVersionsDTO(long version, Long brandVersion, Long customerVersion) {
+        this(version, brandVersion, customerVersion, null, null);
+    }
+}
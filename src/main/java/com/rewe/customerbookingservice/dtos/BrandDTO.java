@@ -12,6 +12,7 @@ import lombok.*;
 @Builder
 public class BrandDTO {
     private Long id;
+    private Long version;
 
     @Size(min = 3, max = 100, message = "Name must be between 3 and 100 characters")
     private String name;
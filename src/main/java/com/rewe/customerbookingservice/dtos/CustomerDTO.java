@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 @Builder
 public class CustomerDTO {
     private Long id;
+    private Long version;
 
     @Size(min = 3, max = 50, message = "Name must be between 3 and 50 characters")
     private String name;
@@ -31,4 +32,9 @@ public class CustomerDTO {
     private boolean active;
     private LocalDateTime created;
     private LocalDateTime updated;
+    /**
+     * Read-only, ignored on create and update.
+     */
+    private long totalBookings;
+    private long activeBookings;
 }
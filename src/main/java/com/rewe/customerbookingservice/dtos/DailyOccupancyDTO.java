@@ -0,0 +1,9 @@
+package com.rewe.customerbookingservice.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Number of active bookings of a brand on one day.
+ */
+public record DailyOccupancyDTO(LocalDate date, int activeBookings) {
+}
@@ -0,0 +1,11 @@
+package com.rewe.customerbookingservice.exception;
+
+/**
+ * An active booking overlaps another active booking of the same brand.
+ */
+public class BookingOverlapException extends RuntimeException {
+
+    public BookingOverlapException(String message) {
+        super(message);
+    }
+}
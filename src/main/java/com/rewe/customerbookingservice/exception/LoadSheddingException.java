@@ -0,0 +1,20 @@
+package com.rewe.customerbookingservice.exception;
+
+import java.time.Duration;
+
+/**
+ * The request was rejected without being handled because the endpoint is at its concurrency limit.
+ */
+public class LoadSheddingException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoadSheddingException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
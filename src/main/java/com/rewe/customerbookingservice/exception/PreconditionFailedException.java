@@ -0,0 +1,11 @@
+package com.rewe.customerbookingservice.exception;
+
+/**
+ * The {@code If-Match} version of a conditional update does not match the stored version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -3,7 +3,11 @@ package com.rewe.customerbookingservice.exception;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
 import org.hibernate.ObjectNotFoundException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,10 +15,17 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.net.URI;
+import java.sql.SQLException;
+import java.time.Duration;
 
 @RestControllerAdvice
 public class RestResponseEntityExceptionHandler {
 
+    /**
+     * Postgres SQLState for an exclusion constraint violation, see {@code ex_booking_brand_period}.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @ExceptionHandler({ConstraintViolationException.class, ValidationException.class, MethodArgumentNotValidException.class, HandlerMethodValidationException.class})
     public ProblemDetail handleConstraintViolationException(
             Exception exception, WebRequest request) {
@@ -36,6 +47,99 @@ public class RestResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handlePreconditionFailedException(PreconditionFailedException exception, WebRequest request) {
+        ProblemDetail problemDetail
+                = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, exception.getMessage());
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle("Precondition Failed");
+
+        return problemDetail;
+    }
+
+    /**
+     * An unconditional update raced with another update of the same entity.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailureException(OptimisticLockingFailureException exception,
+                                                                 WebRequest request) {
+        ProblemDetail problemDetail
+                = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle("Concurrent Modification");
+
+        return problemDetail;
+    }
+
+    /**
+     * Shed by the concurrency limit filter before the request reaches the idempotency filter.
+     */
+    @ExceptionHandler(LoadSheddingException.class)
+    public ResponseEntity<ProblemDetail> handleLoadSheddingException(LoadSheddingException exception, WebRequest request) {
+        ProblemDetail problemDetail
+                = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage());
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle("Too Many Requests");
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(exception.getRetryAfter()))
+                .body(problemDetail);
+    }
+
+    /**
+     * No database connection within the Hikari or permit timeout. Answered with 503 rather than
+     * 500, which also makes the concurrency limiter back off.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ProblemDetail> handleDatabaseUnavailable(Exception exception, WebRequest request) {
+        ProblemDetail problemDetail
+                = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle("Database Unavailable");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
+
+    private static String retryAfterSeconds(Duration retryAfter) {
+        return Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @ExceptionHandler(BookingOverlapException.class)
+    public ProblemDetail handleBookingOverlapException(BookingOverlapException exception, WebRequest request) {
+        return bookingOverlap(exception.getMessage(), request);
+    }
+
+    /**
+     * Overlaps missed by the service check under concurrent writes are rejected by the database.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolationException(DataIntegrityViolationException exception, WebRequest request) {
+        if (hasSqlState(exception, EXCLUSION_VIOLATION)) {
+            return bookingOverlap("The booking overlaps another active booking of the same brand", request);
+        }
+        return handleAll(exception, request);
+    }
+
+    private static ProblemDetail bookingOverlap(String detail, WebRequest request) {
+        ProblemDetail problemDetail
+                = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, detail);
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle("Booking Overlap");
+
+        return problemDetail;
+    }
+
+    private static boolean hasSqlState(Throwable exception, String sqlState) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlState.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleAll(
             Exception exception, WebRequest request) {
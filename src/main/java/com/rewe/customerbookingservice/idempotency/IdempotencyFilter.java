@@ -0,0 +1,245 @@
+package com.rewe.customerbookingservice.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes POSTs carrying an {@code Idempotency-Key} header safe to retry. The first request with a
+ * key claims it and runs; its 2xx response is recorded and returned to every later request with
+ * the same key and body, without calling the service again. A 4xx response and a 503 release the
+ * key, so a retry runs the request again: those are answered before anything is committed, the
+ * 503 when no database connection or transaction could be had. After any other outcome,
+ * including another 5xx or a 2xx whose recording failed, the handler may have committed, so the
+ * key stays claimed until {@code in-progress-timeout}. While a key is claimed, duplicates get 409
+ * with {@code Retry-After}; reusing a key for a different body gets 422.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final Set<String> paths;
+    private final ObjectMapper objectMapper;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter inProgress;
+    private final Counter mismatched;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, Set<String> paths, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.paths = Set.copyOf(paths);
+        this.objectMapper = objectMapper;
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.inProgress = requests(meterRegistry, "in_progress");
+        this.mismatched = requests(meterRegistry, "mismatched");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("http.server.requests.idempotent")
+                .description("Requests with an Idempotency-Key header by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeProblem(request, response, HttpStatus.BAD_REQUEST, "Invalid Idempotency Key",
+                    IDEMPOTENCY_KEY + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String id = request.getRequestURI().substring(request.getContextPath().length()) + " " + key;
+        String requestHash = sha256(body);
+
+        Optional<StoredResponse> stored = idempotencyStore.cached(id);
+        if (stored.isEmpty()) {
+            if (idempotencyStore.claim(id, requestHash)) {
+                executed.increment();
+                execute(new CachedBodyRequest(request, body), response, filterChain, id, requestHash);
+                return;
+            }
+            stored = idempotencyStore.find(id);
+        }
+
+        if (stored.isPresent() && !stored.get().requestHash().equals(requestHash)) {
+            mismatched.increment();
+            writeProblem(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency Key Reused",
+                    "The " + IDEMPOTENCY_KEY + " was already used for a different request body");
+        } else if (stored.isEmpty() || !stored.get().completed()) {
+            // also when the first request failed and released the key just now, a retry runs it again
+            inProgress.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeProblem(request, response, HttpStatus.CONFLICT, "Request In Progress",
+                    "A request with this " + IDEMPOTENCY_KEY + " is still being processed");
+        } else {
+            replayed.increment();
+            replay(stored.get(), response);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String id, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            // an exception leaves the key claimed, the handler may have committed before it
+            filterChain.doFilter(request, cachingResponse);
+            HttpStatusCode status = HttpStatusCode.valueOf(cachingResponse.getStatus());
+            if (status.is2xxSuccessful()) {
+                idempotencyStore.complete(id, StoredResponse.of(requestHash, status.value(),
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray(),
+                        idempotencyStore.newExpiry()));
+            } else if (status.is4xxClientError() || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                idempotencyStore.release(id, requestHash);
+            }
+        } finally {
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        byte[] body = stored.body();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void writeProblem(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                              String title, String detail) throws IOException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setInstance(URI.create(request.getContextPath()));
+        problemDetail.setTitle(title);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The body has been read to hash it, so it is handed on from memory.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is in memory, so it is available at once and read without blocking.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rewe.customerbookingservice.idempotency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired idempotency keys every {@code app.idempotency.purge-interval}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyPurgeScheduler {
+
+    private final IdempotencyStore idempotencyStore;
+
+    public IdempotencyPurgeScheduler(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:1h}")
+    public void purge() {
+        idempotencyStore.purgeExpired();
+    }
+}
@@ -0,0 +1,114 @@
+package com.rewe.customerbookingservice.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rewe.customerbookingservice.config.IdempotencyProperties;
+import com.rewe.customerbookingservice.data.entities.IdempotencyKey;
+import com.rewe.customerbookingservice.data.repositories.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Idempotency keys in the {@code idempotency_key} table, the source of truth shared by all
+ * instances, with recorded responses also kept in a bounded in-memory cache so that replays on
+ * this instance need no query. Claims are never cached: only the database decides who owns a key.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Cache<String, StoredResponse> responses;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository, IdempotencyProperties properties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.ttl = properties.ttl();
+        this.inProgressTimeout = properties.inProgressTimeout();
+    }
+
+    public Optional<StoredResponse> cached(String id) {
+        StoredResponse response = responses.getIfPresent(id);
+        if (response != null && response.expiresAt().isBefore(Instant.now())) {
+            responses.invalidate(id);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(response);
+    }
+
+    /**
+     * Returns whether the caller owns the key and has to execute the request.
+     */
+    public boolean claim(String id, String requestHash) {
+        Instant now = Instant.now();
+        return idempotencyKeyRepository.claim(id, requestHash, now, now.plus(ttl), now.minus(inProgressTimeout));
+    }
+
+    /**
+     * The current state of the key, or empty if it is unknown or expired.
+     */
+    public Optional<StoredResponse> find(String id) {
+        Instant now = Instant.now();
+        return idempotencyKeyRepository.findKey(id)
+                .filter(key -> key.getExpiresAt().isAfter(now))
+                .map(IdempotencyStore::toStoredResponse)
+                .map(response -> {
+                    if (response.completed()) {
+                        responses.put(id, response);
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Records the response of a claimed key. Failures are logged, not thrown: the request has
+     * already succeeded, so its response is still sent, and the key stays claimed until the
+     * in-progress timeout instead of being released for a retry that would run it twice.
+     */
+    public void complete(String id, StoredResponse response) {
+        try {
+            if (idempotencyKeyRepository.complete(id, response.requestHash(), response.status(),
+                    response.contentType(), response.gzippedBody())) {
+                responses.put(id, response);
+            } else {
+                log.warn("Idempotency key {} was taken over before its response was recorded", id);
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not record the response of idempotency key {}, it stays in progress", id, e);
+        }
+    }
+
+    public void release(String id, String requestHash) {
+        idempotencyKeyRepository.release(id, requestHash);
+    }
+
+    public Instant newExpiry() {
+        return Instant.now().plus(ttl);
+    }
+
+    /**
+     * Deletes the expired keys and returns their number.
+     */
+    public int purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteExpired(Instant.now());
+        log.debug("Purged {} expired idempotency keys", purged);
+        return purged;
+    }
+
+    private static StoredResponse toStoredResponse(IdempotencyKey key) {
+        return new StoredResponse(key.getRequestHash(), key.getResponseStatus(), key.getContentType(),
+                key.getResponseBody(), key.getExpiresAt());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rewe.customerbookingservice.idempotency;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * State of an idempotency key: the hash of the request body that claimed it and, once recorded,
+ * the response. The body is kept gzip compressed, in the database as well as in memory.
+ */
+public record StoredResponse(String requestHash, Integer status, String contentType, byte[] gzippedBody,
+                             Instant expiresAt) {
+
+    public static StoredResponse of(String requestHash, int status, String contentType, byte[] body, Instant expiresAt) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new StoredResponse(requestHash, status, contentType, compressed.toByteArray(), expiresAt);
+    }
+
+    /**
+     * {@code false} while the request that claimed the key is still running.
+     */
+    public boolean completed() {
+        return status != null;
+    }
+
+    public byte[] body() {
+        if (gzippedBody == null) {
+            return new byte[0];
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzippedBody))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
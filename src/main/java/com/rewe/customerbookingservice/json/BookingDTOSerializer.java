@@ -0,0 +1,64 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes the nested brand and customer inline instead of resolving their serializers per booking.
+ */
+final class BookingDTOSerializer extends StdSerializer<BookingDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString ACTIVE = new SerializedString("active");
+    private static final SerializedString CREATED = new SerializedString("created");
+    private static final SerializedString UPDATED = new SerializedString("updated");
+    private static final SerializedString START_DATE = new SerializedString("startDate");
+    private static final SerializedString END_DATE = new SerializedString("endDate");
+    private static final SerializedString BRAND = new SerializedString("brand");
+    private static final SerializedString CUSTOMER = new SerializedString("customer");
+
+    private final BrandDTOSerializer brandSerializer;
+    private final CustomerDTOSerializer customerSerializer;
+
+    BookingDTOSerializer(BrandDTOSerializer brandSerializer, CustomerDTOSerializer customerSerializer) {
+        super(BookingDTO.class);
+        this.brandSerializer = brandSerializer;
+        this.customerSerializer = customerSerializer;
+    }
+
+    @Override
+    public void serialize(BookingDTO booking, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(booking);
+        JsonFields.writeLong(gen, ID, booking.getId());
+        JsonFields.writeLong(gen, VERSION, booking.getVersion());
+        JsonFields.writeString(gen, TITLE, booking.getTitle());
+        JsonFields.writeString(gen, DESCRIPTION, booking.getDescription());
+        gen.writeFieldName(ACTIVE);
+        gen.writeBoolean(booking.isActive());
+        JsonFields.writeDateTime(gen, CREATED, booking.getCreated());
+        JsonFields.writeDateTime(gen, UPDATED, booking.getUpdated());
+        JsonFields.writeDate(gen, START_DATE, booking.getStartDate());
+        JsonFields.writeDate(gen, END_DATE, booking.getEndDate());
+        gen.writeFieldName(BRAND);
+        if (booking.getBrand() == null) {
+            gen.writeNull();
+        } else {
+            brandSerializer.serialize(booking.getBrand(), gen, provider);
+        }
+        gen.writeFieldName(CUSTOMER);
+        if (booking.getCustomer() == null) {
+            gen.writeNull();
+        } else {
+            customerSerializer.serialize(booking.getCustomer(), gen, provider);
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,24 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+
+/**
+ * Hand-written serializers for the booking, brand and customer DTOs. They write the same bytes as
+ * the reflective bean serializers under Spring Boot's default {@code ObjectMapper} settings (ISO
+ * dates, {@code null} properties included, declaration order), without the per-property accessor
+ * and date formatter lookups.
+ */
+public class BookingJsonModule extends SimpleModule {
+
+    public BookingJsonModule() {
+        super("BookingJsonModule");
+        BrandDTOSerializer brandSerializer = new BrandDTOSerializer();
+        CustomerDTOSerializer customerSerializer = new CustomerDTOSerializer();
+        addSerializer(BrandDTO.class, brandSerializer);
+        addSerializer(CustomerDTO.class, customerSerializer);
+        addSerializer(BookingDTO.class, new BookingDTOSerializer(brandSerializer, customerSerializer));
+    }
+}
@@ -0,0 +1,33 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+
+import java.io.IOException;
+
+final class BrandDTOSerializer extends StdSerializer<BrandDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString SHORT_CODE = new SerializedString("shortCode");
+
+    BrandDTOSerializer() {
+        super(BrandDTO.class);
+    }
+
+    @Override
+    public void serialize(BrandDTO brand, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(brand);
+        JsonFields.writeLong(gen, ID, brand.getId());
+        JsonFields.writeLong(gen, VERSION, brand.getVersion());
+        JsonFields.writeString(gen, NAME, brand.getName());
+        JsonFields.writeString(gen, ADDRESS, brand.getAddress());
+        JsonFields.writeString(gen, SHORT_CODE, brand.getShortCode());
+        gen.writeEndObject();
+    }
+}
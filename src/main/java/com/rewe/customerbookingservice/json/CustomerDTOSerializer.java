@@ -0,0 +1,47 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+
+import java.io.IOException;
+
+final class CustomerDTOSerializer extends StdSerializer<CustomerDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString AGE = new SerializedString("age");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ACTIVE = new SerializedString("active");
+    private static final SerializedString CREATED = new SerializedString("created");
+    private static final SerializedString UPDATED = new SerializedString("updated");
+    private static final SerializedString TOTAL_BOOKINGS = new SerializedString("totalBookings");
+    private static final SerializedString ACTIVE_BOOKINGS = new SerializedString("activeBookings");
+
+    CustomerDTOSerializer() {
+        super(CustomerDTO.class);
+    }
+
+    @Override
+    public void serialize(CustomerDTO customer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(customer);
+        JsonFields.writeLong(gen, ID, customer.getId());
+        JsonFields.writeLong(gen, VERSION, customer.getVersion());
+        JsonFields.writeString(gen, NAME, customer.getName());
+        gen.writeFieldName(AGE);
+        gen.writeNumber(customer.getAge());
+        JsonFields.writeString(gen, EMAIL, customer.getEmail());
+        gen.writeFieldName(ACTIVE);
+        gen.writeBoolean(customer.isActive());
+        JsonFields.writeDateTime(gen, CREATED, customer.getCreated());
+        JsonFields.writeDateTime(gen, UPDATED, customer.getUpdated());
+        gen.writeFieldName(TOTAL_BOOKINGS);
+        gen.writeNumber(customer.getTotalBookings());
+        gen.writeFieldName(ACTIVE_BOOKINGS);
+        gen.writeNumber(customer.getActiveBookings());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,102 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Field writers shared by the DTO serializers. Dates are written digit by digit in the layout of
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE} and {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which
+ * is what Jackson's JSR-310 serializers produce; years outside 0-9999 go through the formatters.
+ */
+final class JsonFields {
+
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int MAX_DATE_TIME_LENGTH = DATE_TIME_LENGTH + 10;
+
+    private JsonFields() {
+    }
+
+    static void writeLong(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    static void writeDate(JsonGenerator gen, SerializableString name, LocalDate date) throws IOException {
+        gen.writeFieldName(name);
+        if (date == null) {
+            gen.writeNull();
+        } else if (date.getYear() < 0 || date.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE.format(date));
+        } else {
+            char[] buf = new char[DATE_LENGTH];
+            putDate(buf, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            gen.writeString(buf, 0, DATE_LENGTH);
+        }
+    }
+
+    static void writeDateTime(JsonGenerator gen, SerializableString name, LocalDateTime dateTime) throws IOException {
+        gen.writeFieldName(name);
+        if (dateTime == null) {
+            gen.writeNull();
+            return;
+        }
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+            return;
+        }
+        char[] buf = new char[MAX_DATE_TIME_LENGTH];
+        putDate(buf, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+        buf[10] = 'T';
+        putTwoDigits(buf, 11, dateTime.getHour());
+        buf[13] = ':';
+        putTwoDigits(buf, 14, dateTime.getMinute());
+        buf[16] = ':';
+        putTwoDigits(buf, 17, dateTime.getSecond());
+        int length = DATE_TIME_LENGTH;
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            // fraction without trailing zeros, as ISO_LOCAL_TIME prints it
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buf[length++] = '.';
+            for (int i = length + digits - 1; i >= length; i--) {
+                buf[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            length += digits;
+        }
+        gen.writeString(buf, 0, length);
+    }
+
+    private static void putDate(char[] buf, int year, int month, int day) {
+        putTwoDigits(buf, 0, year / 100);
+        putTwoDigits(buf, 2, year % 100);
+        buf[4] = '-';
+        putTwoDigits(buf, 5, month);
+        buf[7] = '-';
+        putTwoDigits(buf, 8, day);
+    }
+
+    private static void putTwoDigits(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+}
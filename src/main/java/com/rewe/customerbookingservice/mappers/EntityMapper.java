@@ -0,0 +1,37 @@
+package com.rewe.customerbookingservice.mappers;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+
+/**
+ * Maps entities to DTOs and back. All methods return {@code null} for a {@code null} input.
+ */
+public interface EntityMapper {
+
+    BookingDTO toDto(Booking booking);
+
+    /**
+     * Maps a booking with the given brand instead of reading {@code booking.getBrand()}.
+     */
+    default BookingDTO toDto(Booking booking, BrandDTO brand) {
+        BookingDTO bookingDTO = toDto(booking);
+        if (bookingDTO != null) {
+            bookingDTO.setBrand(brand);
+        }
+        return bookingDTO;
+    }
+
+    Booking toEntity(BookingDTO bookingDTO);
+
+    CustomerDTO toDto(Customer customer);
+
+    Customer toEntity(CustomerDTO customerDTO);
+
+    BrandDTO toDto(Brand brand);
+
+    Brand toEntity(BrandDTO brandDTO);
+}
@@ -0,0 +1,143 @@
+package com.rewe.customerbookingservice.mappers.impl;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Hand-written mapper used by default. Plain getter/setter copies, no reflection and no
+ * intermediate objects besides the target itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mapping.strategy", havingValue = "direct", matchIfMissing = true)
+public class DirectEntityMapper implements EntityMapper {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Override
+    public BookingDTO toDto(Booking booking) {
+        return booking == null ? null : toDto(booking, toDto(booking.getBrand()));
+    }
+
+    /**
+     * Never touches {@code booking.getBrand()}, so an uninitialized brand proxy stays unloaded.
+     */
+    @Override
+    public BookingDTO toDto(Booking booking, BrandDTO brand) {
+        if (booking == null) {
+            return null;
+        }
+        BookingDTO bookingDTO = new BookingDTO();
+        bookingDTO.setId(booking.getId());
+        bookingDTO.setVersion(booking.getVersion());
+        bookingDTO.setTitle(booking.getTitle());
+        bookingDTO.setDescription(booking.getDescription());
+        bookingDTO.setActive(booking.isActive());
+        bookingDTO.setCreated(toLocalDateTime(booking.getCreated()));
+        bookingDTO.setUpdated(toLocalDateTime(booking.getUpdated()));
+        bookingDTO.setStartDate(booking.getStartDate());
+        bookingDTO.setEndDate(booking.getEndDate());
+        bookingDTO.setBrand(brand);
+        bookingDTO.setCustomer(toDto(booking.getCustomer()));
+        return bookingDTO;
+    }
+
+    @Override
+    public Booking toEntity(BookingDTO bookingDTO) {
+        if (bookingDTO == null) {
+            return null;
+        }
+        Booking booking = new Booking();
+        booking.setId(bookingDTO.getId());
+        booking.setTitle(bookingDTO.getTitle());
+        booking.setDescription(bookingDTO.getDescription());
+        booking.setActive(bookingDTO.isActive());
+        booking.setCreated(toInstant(bookingDTO.getCreated()));
+        booking.setUpdated(toInstant(bookingDTO.getUpdated()));
+        booking.setStartDate(bookingDTO.getStartDate());
+        booking.setEndDate(bookingDTO.getEndDate());
+        booking.setBrand(toEntity(bookingDTO.getBrand()));
+        booking.setCustomer(toEntity(bookingDTO.getCustomer()));
+        return booking;
+    }
+
+    @Override
+    public CustomerDTO toDto(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(customer.getId());
+        customerDTO.setVersion(customer.getVersion());
+        customerDTO.setName(customer.getName());
+        customerDTO.setAge(customer.getAge());
+        customerDTO.setEmail(customer.getEmail());
+        customerDTO.setActive(customer.isActive());
+        customerDTO.setCreated(toLocalDateTime(customer.getCreated()));
+        customerDTO.setUpdated(toLocalDateTime(customer.getUpdated()));
+        customerDTO.setTotalBookings(customer.getTotalBookings());
+        customerDTO.setActiveBookings(customer.getActiveBookings());
+        return customerDTO;
+    }
+
+    @Override
+    public Customer toEntity(CustomerDTO customerDTO) {
+        if (customerDTO == null) {
+            return null;
+        }
+        Customer customer = new Customer();
+        customer.setId(customerDTO.getId());
+        customer.setName(customerDTO.getName());
+        customer.setAge(customerDTO.getAge());
+        customer.setEmail(customerDTO.getEmail());
+        customer.setActive(customerDTO.isActive());
+        customer.setCreated(toInstant(customerDTO.getCreated()));
+        customer.setUpdated(toInstant(customerDTO.getUpdated()));
+        return customer;
+    }
+
+    @Override
+    public BrandDTO toDto(Brand brand) {
+        if (brand == null) {
+            return null;
+        }
+        BrandDTO brandDTO = new BrandDTO();
+        brandDTO.setId(brand.getId());
+        brandDTO.setVersion(brand.getVersion());
+        brandDTO.setName(brand.getName());
+        brandDTO.setAddress(brand.getAddress());
+        brandDTO.setShortCode(brand.getShortCode());
+        return brandDTO;
+    }
+
+    @Override
+    public Brand toEntity(BrandDTO brandDTO) {
+        if (brandDTO == null) {
+            return null;
+        }
+        Brand brand = new Brand();
+        brand.setId(brandDTO.getId());
+        brand.setName(brandDTO.getName());
+        brand.setAddress(brandDTO.getAddress());
+        brand.setShortCode(brandDTO.getShortCode());
+        return brand;
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZONE);
+    }
+
+    private static Instant toInstant(LocalDateTime localDateTime) {
+        return localDateTime == null ? null : localDateTime.atZone(ZONE).toInstant();
+    }
+}
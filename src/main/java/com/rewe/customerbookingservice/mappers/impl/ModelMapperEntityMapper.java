@@ -0,0 +1,56 @@
+package com.rewe.customerbookingservice.mappers.impl;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reflective fallback, enabled with {@code app.mapping.strategy=modelmapper}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mapping.strategy", havingValue = "modelmapper")
+public class ModelMapperEntityMapper implements EntityMapper {
+
+    private final ModelMapper modelMapper;
+
+    public ModelMapperEntityMapper(ModelMapper modelMapper) {
+        this.modelMapper = modelMapper;
+    }
+
+    @Override
+    public BookingDTO toDto(Booking booking) {
+        return booking == null ? null : modelMapper.map(booking, BookingDTO.class);
+    }
+
+    @Override
+    public Booking toEntity(BookingDTO bookingDTO) {
+        return bookingDTO == null ? null : modelMapper.map(bookingDTO, Booking.class);
+    }
+
+    @Override
+    public CustomerDTO toDto(Customer customer) {
+        return customer == null ? null : modelMapper.map(customer, CustomerDTO.class);
+    }
+
+    @Override
+    public Customer toEntity(CustomerDTO customerDTO) {
+        return customerDTO == null ? null : modelMapper.map(customerDTO, Customer.class);
+    }
+
+    @Override
+    public BrandDTO toDto(Brand brand) {
+        return brand == null ? null : modelMapper.map(brand, BrandDTO.class);
+    }
+
+    @Override
+    public Brand toEntity(BrandDTO brandDTO) {
+        return brandDTO == null ? null : modelMapper.map(brandDTO, Brand.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.rewe.customerbookingservice.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}. Threads that never called {@code start()} are not counted. Listens on the
+ * connections of {@link StatementCountingDataSource}, so statements of Hibernate and of plain
+ * JDBC are counted alike; a JDBC batch counts once per statement.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<long[]> count = new ThreadLocal<>();
+
+    public void start() {
+        count.set(new long[1]);
+    }
+
+    public long stop() {
+        long[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long[] current = count.get();
+        if (current != null) {
+            current[0] += queryInfoList.size();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rewe.customerbookingservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements per request as {@code http.server.requests.sql.statements},
+ * tagged like {@code http.server.requests} with method and uri template.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = sqlStatementCounter.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements executed per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
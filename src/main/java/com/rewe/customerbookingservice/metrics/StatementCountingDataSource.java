@@ -0,0 +1,46 @@
+package com.rewe.customerbookingservice.metrics;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out the target's connections through datasource-proxy, which reports every executed
+ * statement to the listener. Stays a {@link DelegatingDataSource}, so the wrappers beneath it can
+ * still be unwrapped.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final DataSource proxy;
+
+    public StatementCountingDataSource(DataSource targetDataSource, QueryExecutionListener listener) {
+        super(targetDataSource);
+        this.proxy = ProxyDataSourceBuilder.create(targetDataSource)
+                .listener(listener)
+                .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy.getConnection(username, password);
+    }
+
+    /**
+     * This wrapper replaces the DataSource bean, so it closes what it wraps.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * Outbox payload. Carries ids and the fields that decide availability, not the full booking;
+ * deletions only carry the booking id.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingChangeEvent(BookingEventType type,
+                                 Long bookingId,
+                                 Long brandId,
+                                 Long customerId,
+                                 Boolean active,
+                                 LocalDate startDate,
+                                 LocalDate endDate) {
+}
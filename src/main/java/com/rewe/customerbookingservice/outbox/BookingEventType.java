@@ -0,0 +1,7 @@
+package com.rewe.customerbookingservice.outbox;
+
+public enum BookingEventType {
+    BOOKING_CREATED,
+    BOOKING_UPDATED,
+    BOOKING_DELETED
+}
@@ -0,0 +1,77 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import com.rewe.customerbookingservice.data.repositories.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes booking change events into the outbox. Must join the transaction of the change, so an
+ * event exists exactly when the change is committed.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class BookingOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookingOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void bookingCreated(Booking booking) {
+        record(changeOf(BookingEventType.BOOKING_CREATED, booking));
+    }
+
+    public void bookingUpdated(Booking booking) {
+        record(changeOf(BookingEventType.BOOKING_UPDATED, booking));
+    }
+
+    public void bookingDeleted(Long bookingId) {
+        record(new BookingChangeEvent(BookingEventType.BOOKING_DELETED, bookingId, null, null, null, null, null));
+    }
+
+    /**
+     * One delete event per booking removed by a bulk delete, saved in JDBC batches.
+     */
+    public void bookingsDeleted(List<Long> bookingIds) {
+        outboxEventRepository.saveAll(bookingIds.stream()
+                .map(bookingId -> toOutboxEvent(
+                        new BookingChangeEvent(BookingEventType.BOOKING_DELETED, bookingId, null, null, null, null, null)))
+                .toList());
+    }
+
+    private static BookingChangeEvent changeOf(BookingEventType type, Booking booking) {
+        // getId() on the lazy associations does not initialize them
+        return new BookingChangeEvent(type, booking.getId(),
+                booking.getBrand() == null ? null : booking.getBrand().getId(),
+                booking.getCustomer() == null ? null : booking.getCustomer().getId(),
+                booking.isActive(), booking.getStartDate(), booking.getEndDate());
+    }
+
+    private void record(BookingChangeEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+    }
+
+    private OutboxEvent toOutboxEvent(BookingChangeEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+        return OutboxEvent.builder()
+                .aggregateId(event.bookingId())
+                .eventType(event.type().name())
+                .payload(payload)
+                .build();
+    }
+}
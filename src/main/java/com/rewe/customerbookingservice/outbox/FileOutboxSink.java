@@ -0,0 +1,50 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.rewe.customerbookingservice.config.OutboxProperties;
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends one JSON line per event to {@code app.outbox.file}, a stand-in for a message broker.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+
+    public FileOutboxSink(OutboxProperties outboxProperties) {
+        this.file = outboxProperties.file();
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OutboxEvent event : events) {
+                    // the payload already is JSON, so the envelope is assembled without re-parsing it
+                    writer.write("{\"id\":" + event.getId() + ",\"createdAt\":\"" + event.getCreatedAt()
+                            + "\",\"event\":" + event.getPayload() + "}");
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps published events in memory, used by tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "in-memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,104 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.rewe.customerbookingservice.config.OutboxProperties;
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import com.rewe.customerbookingservice.data.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches of {@code app.outbox.batch-size}. Each batch is claimed, published
+ * and deleted in one transaction; when publishing fails the transaction rolls back and the batch
+ * is retried on the next poll.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer batchTimer;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager, OutboxProperties outboxProperties,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = outboxProperties.batchSize();
+        this.relayed = Counter.builder("outbox.events.relayed")
+                .description("Outbox events published and removed from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches rolled back because publishing failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, publish and delete one outbox batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time between writing an outbox event and publishing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays everything pending and logs instead of throwing, see {@link OutboxRelayScheduler}.
+     */
+    public void poll() {
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Relaying outbox events failed, retrying on the next poll", e);
+        }
+    }
+
+    /**
+     * Relays batches until the outbox is drained and returns the number of relayed events.
+     */
+    public int relayPending() {
+        int total = 0;
+        int count;
+        do {
+            count = relayBatch();
+            total += count;
+        } while (count == batchSize);
+        return total;
+    }
+
+    /**
+     * Relays at most one batch and returns the number of relayed events.
+     */
+    public int relayBatch() {
+        Integer count = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.claimBatch(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            outboxSink.publish(events);
+            outboxEventRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+            Instant now = Instant.now();
+            events.forEach(event -> lag.record(Duration.between(event.getCreatedAt(), now)));
+            return events.size();
+        }));
+        relayed.increment(count);
+        return count;
+    }
+}
@@ -0,0 +1,25 @@
+package com.rewe.customerbookingservice.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link OutboxRelay} in the background. With {@code app.outbox.relay-enabled=false} events
+ * stay in the outbox until {@link OutboxRelay#relayPending()} is called.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayScheduler {
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxRelayScheduler(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1s}")
+    public void poll() {
+        outboxRelay.poll();
+    }
+}
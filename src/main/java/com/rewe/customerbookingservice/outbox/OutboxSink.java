@@ -0,0 +1,14 @@
+package com.rewe.customerbookingservice.outbox;
+
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. A batch is deleted from the outbox only after
+ * {@link #publish(List)} returned, so sinks see every event at least once.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
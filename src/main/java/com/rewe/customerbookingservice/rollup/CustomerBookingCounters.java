@@ -0,0 +1,89 @@
+package com.rewe.customerbookingservice.rollup;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingCountsDTO;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code Customer#totalBookings} and {@code Customer#activeBookings} in step with the
+ * bookings. Must join the transaction of the change; callers apply the counters last, so the
+ * customer row stays locked only until the commit that follows.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class CustomerBookingCounters {
+
+    private final CustomerRepository customerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CustomerBookingCounters(CustomerRepository customerRepository, EntityManagerFactory entityManagerFactory) {
+        this.customerRepository = customerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void bookingsCreated(Collection<Booking> bookings) {
+        SortedMap<Long, BookingCountsDTO> deltas = new TreeMap<>();
+        bookings.forEach(booking -> add(deltas, OccupancyRollup.periodOf(booking), 1));
+        apply(deltas);
+    }
+
+    /**
+     * Updates keep the customer, so only a change of {@code active} is counted.
+     */
+    public void bookingChanged(BookingPeriodDTO before, Booking after) {
+        if (before.active() != after.isActive() && before.customerId() != null) {
+            SortedMap<Long, BookingCountsDTO> deltas = new TreeMap<>();
+            deltas.put(before.customerId(), new BookingCountsDTO(0, after.isActive() ? 1 : -1));
+            apply(deltas);
+        }
+    }
+
+    public void bookingsDeleted(List<BookingPeriodDTO> periods) {
+        SortedMap<Long, BookingCountsDTO> deltas = new TreeMap<>();
+        periods.forEach(period -> add(deltas, period, -1));
+        apply(deltas);
+    }
+
+    private static void add(SortedMap<Long, BookingCountsDTO> deltas, BookingPeriodDTO period, int sign) {
+        if (period.customerId() != null) {
+            deltas.merge(period.customerId(), new BookingCountsDTO(sign, period.active() ? sign : 0),
+                    BookingCountsDTO::plus);
+        }
+    }
+
+    private void apply(SortedMap<Long, BookingCountsDTO> deltas) {
+        deltas.values().removeIf(BookingCountsDTO::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        customerRepository.addBookingCounts(deltas);
+        List<Long> customerIds = List.copyOf(deltas.keySet());
+        evict(customerIds);
+        // again after commit, so a concurrent read between the two cannot cache the old counters
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(customerIds);
+                }
+            });
+        }
+    }
+
+    private void evict(List<Long> customerIds) {
+        customerIds.forEach(customerId -> entityManagerFactory.getCache().evict(Customer.class, customerId));
+    }
+}
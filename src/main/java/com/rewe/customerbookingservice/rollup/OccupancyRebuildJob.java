@@ -0,0 +1,121 @@
+package com.rewe.customerbookingservice.rollup;
+
+import com.rewe.customerbookingservice.config.RollupProperties;
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes the daily occupancy rollup from the bookings, for the initial fill and to repair
+ * drift. Brands are split into chunks of {@code app.rollup.rebuild-chunk-size} consecutive ids,
+ * each rebuilt in its own transaction on up to {@code app.rollup.rebuild-parallelism} threads, so
+ * keep the parallelism below the connection pool size. Bookings changed while their chunk is
+ * rebuilt can leave the chunk off by their delta until the next rebuild, so run it off-peak.
+ */
+@Component
+public class OccupancyRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyRebuildJob.class);
+
+    private final BrandRepository brandRepository;
+    private final BookingRepository bookingRepository;
+    private final BrandDailyOccupancyRepository occupancyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final Timer rebuildTimer;
+
+    public OccupancyRebuildJob(BrandRepository brandRepository, BookingRepository bookingRepository,
+                               BrandDailyOccupancyRepository occupancyRepository,
+                               PlatformTransactionManager transactionManager, RollupProperties rollupProperties,
+                               MeterRegistry meterRegistry) {
+        this.brandRepository = brandRepository;
+        this.bookingRepository = bookingRepository;
+        this.occupancyRepository = occupancyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = rollupProperties.rebuildParallelism();
+        this.chunkSize = rollupProperties.rebuildChunkSize();
+        this.rebuildTimer = Timer.builder("occupancy.rollup.rebuild")
+                .description("Time to recompute the daily occupancy rollup of all brands")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds and logs instead of throwing, see {@link OccupancyRebuildScheduler}.
+     */
+    public void scheduledRebuild() {
+        try {
+            int chunks = rebuild();
+            log.info("Rebuilt the occupancy rollup in {} chunks", chunks);
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the occupancy rollup failed", e);
+        }
+    }
+
+    /**
+     * Rebuilds the rollup of all brands and returns the number of chunks. Fails with the first
+     * failing chunk; the other chunks are committed independently.
+     */
+    public int rebuild() {
+        return rebuildTimer.record(() -> {
+            List<Long> brandIds = brandRepository.findAllIds();
+            List<Future<?>> chunks = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+                for (int start = 0; start < brandIds.size(); start += chunkSize) {
+                    long fromBrandId = brandIds.get(start);
+                    long toBrandId = brandIds.get(Math.min(start + chunkSize, brandIds.size()) - 1);
+                    chunks.add(executor.submit(() -> rebuildChunk(fromBrandId, toBrandId)));
+                }
+                for (Future<?> chunk : chunks) {
+                    await(chunk);
+                }
+            }
+            return chunks.size();
+        });
+    }
+
+    /**
+     * Replaces the rows of the brands in {@code [fromBrandId, toBrandId]} in one transaction.
+     */
+    public void rebuildChunk(long fromBrandId, long toBrandId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SortedMap<BrandDailyOccupancy.Key, Integer> counts = new TreeMap<>();
+            for (BookingPeriodDTO period : bookingRepository.findActivePeriodsByBrandIdBetween(fromBrandId, toBrandId)) {
+                OccupancyRollup.addDays(counts, period, 1);
+            }
+            occupancyRepository.replaceCounts(fromBrandId, toBrandId, counts);
+        });
+    }
+
+    private static void await(Future<?> chunk) {
+        try {
+            chunk.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Rebuilding an occupancy chunk failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the occupancy rollup", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rewe.customerbookingservice.rollup;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link OccupancyRebuildJob} on {@code app.rollup.rebuild-cron} once a cron is set.
+ */
+@Component
+@ConditionalOnExpression("'${app.rollup.rebuild-cron:-}' != '-'")
+public class OccupancyRebuildScheduler {
+
+    private final OccupancyRebuildJob occupancyRebuildJob;
+
+    public OccupancyRebuildScheduler(OccupancyRebuildJob occupancyRebuildJob) {
+        this.occupancyRebuildJob = occupancyRebuildJob;
+    }
+
+    @Scheduled(cron = "${app.rollup.rebuild-cron}")
+    public void rebuild() {
+        occupancyRebuildJob.scheduledRebuild();
+    }
+}
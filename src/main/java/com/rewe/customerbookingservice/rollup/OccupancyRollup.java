@@ -0,0 +1,77 @@
+package com.rewe.customerbookingservice.rollup;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Applies booking changes to the daily occupancy rollup as deltas: -1 for every day of the old
+ * period, +1 for every day of the new one. Days where both cancel out are not written, so changes
+ * that keep brand, dates and {@code active} cost no statement. Must join the transaction of the
+ * change.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OccupancyRollup {
+
+    private final BrandDailyOccupancyRepository occupancyRepository;
+
+    public OccupancyRollup(BrandDailyOccupancyRepository occupancyRepository) {
+        this.occupancyRepository = occupancyRepository;
+    }
+
+    public void bookingsCreated(Collection<Booking> bookings) {
+        SortedMap<BrandDailyOccupancy.Key, Integer> deltas = new TreeMap<>();
+        bookings.forEach(booking -> addDays(deltas, periodOf(booking), 1));
+        apply(deltas);
+    }
+
+    public void bookingChanged(BookingPeriodDTO before, Booking after) {
+        SortedMap<BrandDailyOccupancy.Key, Integer> deltas = new TreeMap<>();
+        addDays(deltas, before, -1);
+        addDays(deltas, periodOf(after), 1);
+        apply(deltas);
+    }
+
+    public void bookingsDeleted(List<BookingPeriodDTO> periods) {
+        SortedMap<BrandDailyOccupancy.Key, Integer> deltas = new TreeMap<>();
+        periods.forEach(period -> addDays(deltas, period, -1));
+        apply(deltas);
+    }
+
+    public static BookingPeriodDTO periodOf(Booking booking) {
+        // getId() on the lazy associations does not initialize them
+        return new BookingPeriodDTO(booking.getId(), booking.getBrand() == null ? null : booking.getBrand().getId(),
+                booking.getCustomer() == null ? null : booking.getCustomer().getId(), booking.isActive(), booking.getStartDate(), booking.getEndDate(), booking.getVersion());
+    }
+
+    /**
+     * Adds {@code delta} for every day of an active, dated booking with a brand.
+     */
+    static void addDays(Map<BrandDailyOccupancy.Key, Integer> counts, BookingPeriodDTO period, int delta) {
+        if (!period.active() || period.brandId() == null || period.startDate() == null || period.endDate() == null) {
+            return;
+        }
+        for (LocalDate day = period.startDate(); !day.isAfter(period.endDate()); day = day.plusDays(1)) {
+            counts.merge(new BrandDailyOccupancy.Key(period.brandId(), day), delta, Integer::sum);
+        }
+    }
+
+    private void apply(SortedMap<BrandDailyOccupancy.Key, Integer> deltas) {
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            occupancyRepository.applyDeltas(deltas);
+        }
+    }
+}
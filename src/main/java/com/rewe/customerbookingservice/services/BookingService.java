@@ -1,23 +1,78 @@
 package com.rewe.customerbookingservice.services;
 
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BookingVersionsDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public interface BookingService {
 
     List<BookingDTO> findAllBookings();
 
+    /**
+     * Passes every booking to {@code consumer} one at a time without holding the whole table in memory.
+     */
+    void exportBookings(Consumer<BookingDTO> consumer);
+
     BookingDTO findBookingById(Long id);
 
+    Optional<BookingVersionsDTO> findBookingVersions(Long id);
+
     BookingDTO saveBooking(BookingDTO booking);
 
+    /**
+     * Persists all bookings using batched inserts and returns them in the same order.
+     */
+    List<BookingDTO> saveBookings(List<BookingDTO> bookings);
+
     BookingDTO updateBooking(Long id, BookingDTO bookingDetails);
 
+    /**
+     * Updates the booking only if it still has {@code expectedVersion}, otherwise throws
+     * {@code PreconditionFailedException}.
+     */
+    BookingDTO updateBooking(Long id, BookingDTO bookingDetails, long expectedVersion);
+
+    /**
+     * Applies {@code patch} to the current booking and writes only the changed title, description,
+     * active flag, dates and brand; a patch that changes nothing is not written. A non-null
+     * {@code expectedVersion} must match the current version.
+     */
+    BookingDTO patchBooking(Long id, UnaryOperator<BookingDTO> patch, Long expectedVersion);
+
     boolean deleteBooking(Long id);
 
     List<BookingDTO> findBookingsByCustomerId(Long customerId);
 
     List<BookingDTO> findBookingsByBrandId(Long brandId);
+
+    /**
+     * Returns the bookings of a customer ordered by id, starting after {@code cursor}.
+     * A {@code null} size selects the default page size, larger sizes are capped.
+     */
+    BookingPageDTO findBookingsByCustomerId(Long customerId, String cursor, Integer size);
+
+    /**
+     * Returns the bookings of a brand ordered by id, starting after {@code cursor}.
+     * A {@code null} size selects the default page size, larger sizes are capped.
+     */
+    BookingPageDTO findBookingsByBrandId(Long brandId, String cursor, Integer size);
+
+    /**
+     * Returns the active bookings overlapping {@code [from, to]}, optionally of one brand and/or
+     * customer, ordered by id and starting after {@code cursor}.
+     */
+    BookingPageDTO findBookingsInRange(LocalDate from, LocalDate to, Long brandId, Long customerId,
+                                       String cursor, Integer size);
+
+    /**
+     * Returns the bookings whose title or description match {@code query}, best match first,
+     * optionally of one brand and/or customer.
+     */
+    BookingPageDTO searchBookings(String query, Long brandId, Long customerId, String cursor, Integer size);
 }
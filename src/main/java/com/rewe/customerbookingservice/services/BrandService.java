@@ -1,14 +1,44 @@
 package com.rewe.customerbookingservice.services;
 
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public interface BrandService {
+    Optional<BrandDTO> findBrandById(Long id);
+
+    Optional<BrandDTO> findBrandByShortCode(String shortCode);
+
     BrandDTO saveBrand(BrandDTO brand);
 
     BrandDTO updateBrand(Long id, BrandDTO brandDetails);
 
+    /**
+     * Updates the brand only if it still has {@code expectedVersion}, otherwise throws
+     * {@code PreconditionFailedException}.
+     */
+    BrandDTO updateBrand(Long id, BrandDTO brandDetails, long expectedVersion);
+
+    /**
+     * Applies {@code patch} to the current brand and writes only the changed columns, or nothing
+     * when the patch changes nothing. A non-null {@code expectedVersion} must match the current version.
+     */
+    BrandDTO patchBrand(Long id, UnaryOperator<BrandDTO> patch, Long expectedVersion);
+
     boolean deleteBrand(Long id);
+
+    /**
+     * Brands without an active booking overlapping {@code [from, to]}.
+     */
+    List<BrandDTO> findAvailableBrands(LocalDate from, LocalDate to);
+
+    /**
+     * Active bookings of the brand for every day of {@code [from, to]}, read from the daily
+     * occupancy rollup. Unknown brands have no bookings on any day.
+     */
+    List<DailyOccupancyDTO> findOccupancy(Long brandId, LocalDate from, LocalDate to);
 }
@@ -4,11 +4,29 @@ import com.rewe.customerbookingservice.dtos.CustomerDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 public interface CustomerService {
+    /**
+     * The customer with its booking counters, without reading any booking.
+     */
+    Optional<CustomerDTO> findCustomerById(Long id);
+
     CustomerDTO saveCustomer(CustomerDTO customer);
 
     CustomerDTO updateCustomer(Long id, CustomerDTO customerDetails);
 
+    /**
+     * Updates the customer only if it still has {@code expectedVersion}, otherwise throws
+     * {@code PreconditionFailedException}.
+     */
+    CustomerDTO updateCustomer(Long id, CustomerDTO customerDetails, long expectedVersion);
+
+    /**
+     * Applies {@code patch} to the current customer and writes only the changed columns, or nothing
+     * when the patch changes nothing. A non-null {@code expectedVersion} must match the current version.
+     */
+    CustomerDTO patchCustomer(Long id, UnaryOperator<CustomerDTO> patch, Long expectedVersion);
+
     boolean deleteCustomer(Long id);
 }
@@ -0,0 +1,36 @@
+package com.rewe.customerbookingservice.services.impl;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the id of the last booking of a page as an opaque, URL safe cursor. Search pages, which
+ * are not ordered by id, use {@link SearchCursors} instead.
+ */
+final class BookingCursors {
+
+    private BookingCursors() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the id to continue after, {@code 0} for the first page
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
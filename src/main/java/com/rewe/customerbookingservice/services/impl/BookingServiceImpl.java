@@ -1,100 +1,450 @@
 package com.rewe.customerbookingservice.services.impl;
 
+import com.rewe.customerbookingservice.config.PaginationProperties;
+import com.rewe.customerbookingservice.config.RollupProperties;
 import com.rewe.customerbookingservice.data.entities.Booking;
 import com.rewe.customerbookingservice.data.entities.Brand;
 import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import com.rewe.customerbookingservice.dtos.BookingVersionsDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.exception.BookingOverlapException;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import com.rewe.customerbookingservice.outbox.BookingOutbox;
+import com.rewe.customerbookingservice.rollup.CustomerBookingCounters;
+import com.rewe.customerbookingservice.rollup.OccupancyRollup;
 import com.rewe.customerbookingservice.services.BookingService;
+import com.rewe.customerbookingservice.services.BrandService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
+import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "app.service.calls", description = "Service method calls")
 public class BookingServiceImpl implements BookingService {
 
+    /**
+     * Matches {@code hibernate.jdbc.batch_size}, so every flush sends exactly one JDBC batch.
+     */
+    static final int BULK_FLUSH_SIZE = 50;
+
+    static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final BookingRepository bookingRepository;
-    private final ModelMapper modelMapper;
+    private final EntityMapper entityMapper;
+    private final PaginationProperties paginationProperties;
+    private final EntityManager entityManager;
+    private final BrandService brandService;
+    private final BookingOutbox bookingOutbox;
+    private final OccupancyRollup occupancyRollup;
+    private final CustomerBookingCounters customerBookingCounters;
+    private final RollupProperties rollupProperties;
 
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, ModelMapper modelMapper) {
+    public BookingServiceImpl(BookingRepository bookingRepository, EntityMapper entityMapper,
+                              PaginationProperties paginationProperties, EntityManager entityManager,
+                              BrandService brandService, BookingOutbox bookingOutbox,
+                              OccupancyRollup occupancyRollup, CustomerBookingCounters customerBookingCounters,
+                              RollupProperties rollupProperties) {
         this.bookingRepository = bookingRepository;
-        this.modelMapper = modelMapper;
+        this.entityMapper = entityMapper;
+        this.paginationProperties = paginationProperties;
+        this.entityManager = entityManager;
+        this.brandService = brandService;
+        this.bookingOutbox = bookingOutbox;
+        this.occupancyRollup = occupancyRollup;
+        this.customerBookingCounters = customerBookingCounters;
+        this.rollupProperties = rollupProperties;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDTO> findAllBookings() {
         return bookingRepository.findAll()
                 .stream()
-                .map(booking -> modelMapper.map(booking, BookingDTO.class))
+                .map(booking -> entityMapper.toDto(booking))
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(Consumer<BookingDTO> consumer) {
+        try (Stream<Booking> bookings = bookingRepository.streamAll()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(entityMapper.toDto(iterator.next()));
+                // drop already exported entities so the persistence context stays small
+                if (++count % BookingRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookingDTO findBookingById(Long id) throws EntityNotFoundException {
-        return bookingRepository.findById(id)
-                .map(booking -> modelMapper.map(booking, BookingDTO.class))
+        return bookingRepository.findWithBrandAndCustomerById(id)
+                .map(booking -> entityMapper.toDto(booking))
                 .orElseThrow(EntityNotFoundException::new);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BookingVersionsDTO> findBookingVersions(Long id) {
+        return bookingRepository.findVersionsById(id);
+    }
+
     @Override
     public BookingDTO saveBooking(BookingDTO bookingDTO) {
-        Booking booking = modelMapper.map(bookingDTO, Booking.class);
+        checkOverlap(null, bookingDTO.isActive(), brandIdOf(bookingDTO), bookingDTO.getStartDate(),
+                bookingDTO.getEndDate());
+        Booking booking = entityMapper.toEntity(bookingDTO);
         Booking savedBooking = bookingRepository.save(booking);
-        return modelMapper.map(savedBooking, BookingDTO.class);
+        bookingOutbox.bookingCreated(savedBooking);
+        occupancyRollup.bookingsCreated(List.of(savedBooking));
+        customerBookingCounters.bookingsCreated(List.of(savedBooking));
+        return entityMapper.toDto(savedBooking);
+    }
+
+    @Override
+    public List<BookingDTO> saveBookings(List<BookingDTO> bookingDTOs) {
+        // all checks run before the first save, so the overlap queries do not flush a partial batch
+        checkOverlapWithinBatch(bookingDTOs);
+        for (BookingDTO bookingDTO : bookingDTOs) {
+            checkOverlap(null, bookingDTO.isActive(), brandIdOf(bookingDTO), bookingDTO.getStartDate(),
+                    bookingDTO.getEndDate());
+        }
+        List<BookingDTO> savedBookings = new ArrayList<>(bookingDTOs.size());
+        List<Booking> pending = new ArrayList<>(BULK_FLUSH_SIZE);
+        for (BookingDTO bookingDTO : bookingDTOs) {
+            Booking savedBooking = bookingRepository.save(entityMapper.toEntity(bookingDTO));
+            bookingOutbox.bookingCreated(savedBooking);
+            pending.add(savedBooking);
+            if (pending.size() == BULK_FLUSH_SIZE) {
+                flushAndClear(pending, savedBookings);
+            }
+        }
+        flushAndClear(pending, savedBookings);
+        return savedBookings;
+    }
+
+    /**
+     * The bookings of a batch are not in the database yet, so the overlap query cannot see them.
+     */
+    private static void checkOverlapWithinBatch(List<BookingDTO> bookingDTOs) {
+        Map<Long, List<BookingDTO>> activeByBrand = bookingDTOs.stream()
+                .filter(bookingDTO -> bookingDTO.isActive() && brandIdOf(bookingDTO) != null
+                        && bookingDTO.getStartDate() != null && bookingDTO.getEndDate() != null)
+                .collect(Collectors.groupingBy(BookingServiceImpl::brandIdOf));
+        activeByBrand.forEach((brandId, bookings) -> {
+            List<BookingDTO> byStart = bookings.stream()
+                    .sorted(Comparator.comparing(BookingDTO::getStartDate))
+                    .toList();
+            for (int i = 1; i < byStart.size(); i++) {
+                BookingDTO previous = byStart.get(i - 1);
+                BookingDTO next = byStart.get(i);
+                if (!next.getStartDate().isAfter(previous.getEndDate())) {
+                    throw new BookingOverlapException("Bookings for brand " + brandId + " between "
+                            + previous.getStartDate() + " and " + previous.getEndDate() + " and between "
+                            + next.getStartDate() + " and " + next.getEndDate() + " overlap");
+                }
+            }
+        });
+    }
+
+    private static Long brandIdOf(BookingDTO bookingDTO) {
+        return bookingDTO.getBrand() == null ? null : bookingDTO.getBrand().getId();
+    }
+
+    private void flushAndClear(List<Booking> pending, List<BookingDTO> savedBookings) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        occupancyRollup.bookingsCreated(pending);
+        customerBookingCounters.bookingsCreated(pending);
+        pending.forEach(booking -> savedBookings.add(entityMapper.toDto(booking)));
+        pending.clear();
+        entityManager.clear();
     }
 
     @Override
     public BookingDTO updateBooking(Long id, BookingDTO bookingDetails) throws EntityNotFoundException {
-        Optional<Booking> existingBooking = bookingRepository.findById(id);
+        Optional<Booking> existingBooking = bookingRepository.findWithBrandAndCustomerById(id);
         if (existingBooking.isPresent()) {
             Booking bookingToUpdate = existingBooking.get();
+            Brand brand = bookingDetails.getBrand() != null
+                    ? entityMapper.toEntity(bookingDetails.getBrand())
+                    : bookingToUpdate.getBrand();
+            // checked before the entity is modified, so the query does not flush a conflicting update
+            checkOverlap(id, bookingDetails.isActive(), brand == null ? null : brand.getId(),
+                    bookingDetails.getStartDate(), bookingDetails.getEndDate());
+            BookingPeriodDTO before = OccupancyRollup.periodOf(bookingToUpdate);
             bookingToUpdate.setTitle(bookingDetails.getTitle());
             bookingToUpdate.setDescription(bookingDetails.getDescription());
             bookingToUpdate.setActive(bookingDetails.isActive());
             bookingToUpdate.setStartDate(bookingDetails.getStartDate());
             bookingToUpdate.setEndDate(bookingDetails.getEndDate());
-            if (bookingDetails.getBrand() != null) {
-                bookingToUpdate.setBrand(modelMapper.map(bookingDetails.getBrand(), Brand.class)); // Assuming you have the ID mapping set correctly
-            }
+            bookingToUpdate.setBrand(brand);
 
             Booking updatedBooking = bookingRepository.save(bookingToUpdate);
-            return modelMapper.map(updatedBooking, BookingDTO.class);
+            // the version is incremented on flush; the response and its ETag need the new one
+            bookingRepository.flush();
+            bookingOutbox.bookingUpdated(updatedBooking);
+            occupancyRollup.bookingChanged(before, updatedBooking);
+            customerBookingCounters.bookingChanged(before, updatedBooking);
+            return entityMapper.toDto(updatedBooking);
         }
         throw new EntityNotFoundException("Booking not found for id: " + id);
     }
 
+    @Override
+    public BookingDTO updateBooking(Long id, BookingDTO bookingDetails, long expectedVersion) {
+        // the rollup needs the replaced period, which also gives the current brand when it is kept
+        BookingPeriodDTO before = bookingRepository.lockPeriodById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Booking not found for id: " + id));
+        if (before.version() != expectedVersion) {
+            throw new PreconditionFailedException("Booking " + id + " no longer has version " + expectedVersion);
+        }
+        Brand brand = entityMapper.toEntity(bookingDetails.getBrand());
+        Long brandId = brand == null ? before.brandId() : brand.getId();
+        checkOverlap(id, bookingDetails.isActive(), brandId, bookingDetails.getStartDate(), bookingDetails.getEndDate());
+        int updated = brand == null
+                ? bookingRepository.updateIfVersionMatches(id, expectedVersion, bookingDetails.getTitle(),
+                        bookingDetails.getDescription(), bookingDetails.isActive(), bookingDetails.getStartDate(),
+                        bookingDetails.getEndDate(), Instant.now())
+                : bookingRepository.updateWithBrandIfVersionMatches(id, expectedVersion, bookingDetails.getTitle(),
+                        bookingDetails.getDescription(), bookingDetails.isActive(), bookingDetails.getStartDate(),
+                        bookingDetails.getEndDate(), Instant.now(), brand);
+        if (updated == 0) {
+            if (!bookingRepository.existsById(id)) {
+                throw new EntityNotFoundException("Booking not found for id: " + id);
+            }
+            throw new PreconditionFailedException("Booking " + id + " no longer has version " + expectedVersion);
+        }
+        // read back for the brand and customer of the response
+        Booking updatedBooking = bookingRepository.findWithBrandAndCustomerById(id)
+                .orElseThrow(EntityNotFoundException::new);
+        bookingOutbox.bookingUpdated(updatedBooking);
+        occupancyRollup.bookingChanged(before, updatedBooking);
+        customerBookingCounters.bookingChanged(before, updatedBooking);
+        return entityMapper.toDto(updatedBooking);
+    }
+
+    @Override
+    public BookingDTO patchBooking(Long id, UnaryOperator<BookingDTO> patch, Long expectedVersion) {
+        Booking booking = bookingRepository.findWithBrandAndCustomerById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Booking not found for id: " + id));
+        if (expectedVersion != null && booking.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Booking " + id + " no longer has version " + expectedVersion);
+        }
+        BookingDTO patched = patch.apply(entityMapper.toDto(booking));
+        if (patched.getBrand() != null && patched.getBrand().getId() == null) {
+            throw new ValidationException("brand.id is required to change the brand");
+        }
+        Long brandId = patched.getBrand() == null ? null : patched.getBrand().getId();
+        Long currentBrandId = booking.getBrand() == null ? null : booking.getBrand().getId();
+        boolean brandChanged = !Objects.equals(brandId, currentBrandId);
+        boolean changed = brandChanged
+                || booking.isActive() != patched.isActive()
+                || !Objects.equals(booking.getTitle(), patched.getTitle())
+                || !Objects.equals(booking.getDescription(), patched.getDescription())
+                || !Objects.equals(booking.getStartDate(), patched.getStartDate())
+                || !Objects.equals(booking.getEndDate(), patched.getEndDate());
+        if (!changed) {
+            return entityMapper.toDto(booking);
+        }
+        checkOverlap(id, patched.isActive(), brandId, patched.getStartDate(), patched.getEndDate());
+        BookingPeriodDTO before = OccupancyRollup.periodOf(booking);
+        // only the columns that differ end up in the UPDATE, see @DynamicUpdate on Booking
+        booking.setTitle(patched.getTitle());
+        booking.setDescription(patched.getDescription());
+        booking.setActive(patched.isActive());
+        booking.setStartDate(patched.getStartDate());
+        booking.setEndDate(patched.getEndDate());
+        if (brandChanged) {
+            booking.setBrand(brandId == null ? null : entityManager.getReference(Brand.class, brandId));
+        }
+        // flushed here so the response carries the new version and updated timestamp
+        bookingRepository.flush();
+        bookingOutbox.bookingUpdated(booking);
+        occupancyRollup.bookingChanged(before, booking);
+        customerBookingCounters.bookingChanged(before, booking);
+        return entityMapper.toDto(booking);
+    }
+
+    /**
+     * Rejects an active booking that overlaps another active booking of the same brand. Bookings
+     * without brand or dates are not checked.
+     */
+    private void checkOverlap(Long id, boolean active, Long brandId, LocalDate startDate, LocalDate endDate) {
+        checkPeriod(startDate, endDate);
+        if (!active || brandId == null || startDate == null || endDate == null) {
+            return;
+        }
+        if (bookingRepository.existsActiveOverlap(brandId, startDate, endDate, id == null ? 0L : id)) {
+            throw new BookingOverlapException("Brand " + brandId + " already has an active booking between "
+                    + startDate + " and " + endDate);
+        }
+    }
+
+    /**
+     * Every day of a booking is a row of the occupancy rollup, so its span is bounded.
+     */
+    private void checkPeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return;
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ValidationException("endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= rollupProperties.maxBookingDays()) {
+            throw new ValidationException("A booking must not span more than " + rollupProperties.maxBookingDays()
+                    + " days");
+        }
+    }
+
     @Override
     public boolean deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
-        return !bookingRepository.existsById(id);
+        Optional<BookingPeriodDTO> period = bookingRepository.lockPeriodById(id);
+        if (period.isEmpty() || bookingRepository.deleteBookingById(id) == 0) {
+            return false;
+        }
+        bookingOutbox.bookingDeleted(id);
+        occupancyRollup.bookingsDeleted(List.of(period.get()));
+        customerBookingCounters.bookingsDeleted(List.of(period.get()));
+        return true;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDTO> findBookingsByCustomerId(Long customerId) {
         List<BookingDTO> bookingDTOList =
                 bookingRepository
                         .findByCustomerId(customerId)
                         .stream()
-                        .map(booking -> modelMapper.map(booking, BookingDTO.class)).toList();
+                        .map(booking -> entityMapper.toDto(booking)).toList();
 
         return bookingDTOList;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDTO> findBookingsByBrandId(Long brandId) {
+        List<Booking> bookings = bookingRepository.findByBrandId(brandId);
+        Function<Booking, BookingDTO> mapper = withCachedBrand(brandId, bookings);
         List<BookingDTO> bookingDTOList =
-                bookingRepository
-                        .findByBrandId(brandId)
+                bookings
                         .stream()
-                        .map(booking -> modelMapper.map(booking, BookingDTO.class)).toList();
+                        .map(mapper).toList();
 
         return bookingDTOList;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDTO findBookingsByCustomerId(Long customerId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Booking> bookings = bookingRepository.findByCustomerIdAndIdGreaterThanOrderByIdAsc(
+                customerId, BookingCursors.decode(cursor), Limit.of(pageSize + 1));
+        return toPage(bookings, pageSize, booking -> entityMapper.toDto(booking));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDTO findBookingsByBrandId(Long brandId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Booking> bookings = bookingRepository.findByBrandIdAndIdGreaterThanOrderByIdAsc(
+                brandId, BookingCursors.decode(cursor), Limit.of(pageSize + 1));
+        return toPage(bookings, pageSize, withCachedBrand(brandId, bookings));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDTO findBookingsInRange(LocalDate from, LocalDate to, Long brandId, Long customerId,
+                                              String cursor, Integer size) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("to must not be before from");
+        }
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Booking> bookings = bookingRepository.findActiveInRange(
+                from, to, brandId, customerId, BookingCursors.decode(cursor), pageSize + 1);
+        return toPage(bookings, pageSize, booking -> entityMapper.toDto(booking));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDTO searchBookings(String query, Long brandId, Long customerId, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("q must not be blank");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new ValidationException("q must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long offset = SearchCursors.decode(cursor);
+        List<Long> ids = bookingRepository.searchIds(query.strip(), brandId, customerId, offset, pageSize + 1);
+        // no page starts beyond the maximum offset
+        boolean hasNext = ids.size() > pageSize && offset + pageSize < SearchCursors.MAX_OFFSET;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        // loaded in one query, then put back into rank order
+        Map<Long, Booking> bookings = pageIds.isEmpty() ? Map.of() : bookingRepository.findWithBrandAndCustomerByIdIn(pageIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingDTO> bookingDTOList = pageIds.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(booking -> entityMapper.toDto(booking))
+                .toList();
+        return new BookingPageDTO(bookingDTOList, hasNext ? SearchCursors.encode(offset + pageSize) : null);
+    }
+
+    /**
+     * All bookings of a brand share one brand, so it is taken from the brand cache instead of
+     * being loaded with every booking list.
+     */
+    private Function<Booking, BookingDTO> withCachedBrand(Long brandId, List<Booking> bookings) {
+        BrandDTO brand = bookings.isEmpty() ? null : brandService.findBrandById(brandId).orElse(null);
+        return booking -> entityMapper.toDto(booking, brand);
+    }
+
+    /**
+     * Expects one booking more than {@code pageSize}; its presence means there is a next page.
+     */
+    private BookingPageDTO toPage(List<Booking> bookings, int pageSize, Function<Booking, BookingDTO> mapper) {
+        boolean hasNext = bookings.size() > pageSize;
+        List<Booking> page = hasNext ? bookings.subList(0, pageSize) : bookings;
+        List<BookingDTO> bookingDTOList = page.stream()
+                .map(mapper)
+                .toList();
+        String nextCursor = hasNext ? BookingCursors.encode(page.get(pageSize - 1).getId()) : null;
+        return new BookingPageDTO(bookingDTOList, nextCursor);
+    }
 }
@@ -0,0 +1,79 @@
+package com.rewe.customerbookingservice.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rewe.customerbookingservice.config.BrandCacheProperties;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Bounded, time limited cache of {@link BrandDTO}s by id and by short code. Cached DTOs are shared
+ * between callers and must not be modified. Missing brands are not cached.
+ */
+@Component
+public class BrandCache {
+
+    private final Cache<Long, BrandDTO> byId;
+    private final Cache<String, BrandDTO> byShortCode;
+
+    public BrandCache(BrandCacheProperties properties) {
+        this.byId = newCache(properties);
+        this.byShortCode = newCache(properties);
+    }
+
+    private static <K> Cache<K, BrandDTO> newCache(BrandCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param cacheLoaded whether a brand the loader returns is cached; otherwise it is only returned
+     */
+    public BrandDTO getById(Long id, Function<Long, BrandDTO> loader, boolean cacheLoaded) {
+        return get(byId, id, loader, cacheLoaded);
+    }
+
+    public BrandDTO getByShortCode(String shortCode, Function<String, BrandDTO> loader, boolean cacheLoaded) {
+        return get(byShortCode, shortCode, loader, cacheLoaded);
+    }
+
+    private static <K> BrandDTO get(Cache<K, BrandDTO> cache, K key, Function<K, BrandDTO> loader,
+                                    boolean cacheLoaded) {
+        if (cacheLoaded) {
+            return cache.get(key, loader);
+        }
+        BrandDTO cached = cache.getIfPresent(key);
+        return cached != null ? cached : loader.apply(key);
+    }
+
+    /**
+     * Drops the brand from both views, including short code entries under a code it no longer has.
+     */
+    public void evict(Long id) {
+        byId.invalidate(id);
+        byShortCode.asMap().values().removeIf(brand -> id.equals(brand.getId()));
+    }
+
+    /**
+     * Short codes are not unique, so a write to one brand can change which brand a code resolves to.
+     */
+    public void evictShortCode(String shortCode) {
+        if (shortCode != null) {
+            byShortCode.invalidate(shortCode);
+        }
+    }
+
+    public CacheStats idStats() {
+        return byId.stats();
+    }
+
+    public CacheStats shortCodeStats() {
+        return byShortCode.stats();
+    }
+}
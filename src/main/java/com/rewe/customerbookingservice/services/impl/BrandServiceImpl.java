@@ -1,37 +1,100 @@
 package com.rewe.customerbookingservice.services.impl;
 
+import com.rewe.customerbookingservice.config.ReplicaDataSource;
 import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
 import com.rewe.customerbookingservice.data.repositories.BrandRepository;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
 import com.rewe.customerbookingservice.services.BrandService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
+import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "app.service.calls", description = "Service method calls")
 public class BrandServiceImpl implements BrandService {
 
+    static final int MAX_OCCUPANCY_DAYS = 366;
+
     private final BrandRepository brandRepository;
-    private final ModelMapper modelMapper;
+    private final EntityMapper entityMapper;
+    private final BrandCache brandCache;
+    private final BrandDailyOccupancyRepository occupancyRepository;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
-    public BrandServiceImpl(BrandRepository brandRepository, ModelMapper modelMapper) {
+    public BrandServiceImpl(BrandRepository brandRepository, EntityMapper entityMapper, BrandCache brandCache,
+                            BrandDailyOccupancyRepository occupancyRepository,
+                            PlatformTransactionManager transactionManager) {
         this.brandRepository = brandRepository;
-        this.modelMapper = modelMapper;
+        this.entityMapper = entityMapper;
+        this.brandCache = brandCache;
+        this.occupancyRepository = occupancyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Joins the caller's transaction but starts none, so a cache hit takes no connection. A miss
+     * is loaded in a read-only transaction on the primary: a brand read from a lagging replica
+     * right after an update would stay cached for the cache's whole expiry.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<BrandDTO> findBrandById(Long id) {
+        return Optional.ofNullable(brandCache.getById(id, key -> load(() -> brandRepository.findById(key)),
+                readsFromPrimary()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<BrandDTO> findBrandByShortCode(String shortCode) {
+        return Optional.ofNullable(brandCache.getByShortCode(shortCode,
+                key -> load(() -> brandRepository.findFirstByShortCodeOrderByIdAsc(key)), readsFromPrimary()));
+    }
+
+    private BrandDTO load(Supplier<Optional<Brand>> query) {
+        return ReplicaDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> query.get()
+                .map(brand -> entityMapper.toDto(brand))
+                .orElse(null)));
+    }
+
+    /**
+     * Callers in a read-only transaction, such as a booking page looking up its brand, may already
+     * read from the replica, so what they load is returned but not cached.
+     */
+    private static boolean readsFromPrimary() {
+        return !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
     }
 
     @Override
     public BrandDTO saveBrand(BrandDTO brandDTO) {
-        Brand brand = modelMapper.map(brandDTO, Brand.class);
+        Brand brand = entityMapper.toEntity(brandDTO);
         Brand savedBrand = brandRepository.save(brand);
-        return modelMapper.map(savedBrand, BrandDTO.class);
+        return entityMapper.toDto(savedBrand);
     }
 
     @Override
@@ -43,14 +106,107 @@ public class BrandServiceImpl implements BrandService {
             brandToUpdate.setAddress(brandDetails.getAddress());
             brandToUpdate.setShortCode(brandDetails.getShortCode());
             Brand updatedBrand = brandRepository.save(brandToUpdate);
-            return modelMapper.map(updatedBrand, BrandDTO.class);
+            // the version is incremented on flush; the response and its ETag need the new one
+            brandRepository.flush();
+            evict(id, brandDetails.getShortCode());
+            return entityMapper.toDto(updatedBrand);
         }
         throw new EntityNotFoundException("Brand not found for id: " + id);
     }
 
+    @Override
+    public BrandDTO updateBrand(Long id, BrandDTO brandDetails, long expectedVersion) {
+        int updated = brandRepository.updateIfVersionMatches(id, expectedVersion, brandDetails.getName(),
+                brandDetails.getAddress(), brandDetails.getShortCode(), Instant.now());
+        if (updated == 0) {
+            if (!brandRepository.existsById(id)) {
+                throw new EntityNotFoundException("Brand not found for id: " + id);
+            }
+            throw new PreconditionFailedException("Brand " + id + " no longer has version " + expectedVersion);
+        }
+        evict(id, brandDetails.getShortCode());
+        // every field of the representation was just written, so the brand is not read back
+        return BrandDTO.builder()
+                .id(id)
+                .version(expectedVersion + 1)
+                .name(brandDetails.getName())
+                .address(brandDetails.getAddress())
+                .shortCode(brandDetails.getShortCode())
+                .build();
+    }
+
+    @Override
+    public BrandDTO patchBrand(Long id, UnaryOperator<BrandDTO> patch, Long expectedVersion) {
+        Brand brand = brandRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Brand not found for id: " + id));
+        if (expectedVersion != null && brand.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Brand " + id + " no longer has version " + expectedVersion);
+        }
+        BrandDTO patched = patch.apply(entityMapper.toDto(brand));
+        if (Objects.equals(brand.getName(), patched.getName())
+                && Objects.equals(brand.getAddress(), patched.getAddress())
+                && Objects.equals(brand.getShortCode(), patched.getShortCode())) {
+            return entityMapper.toDto(brand);
+        }
+        brand.setName(patched.getName());
+        brand.setAddress(patched.getAddress());
+        brand.setShortCode(patched.getShortCode());
+        brandRepository.flush();
+        evict(id, patched.getShortCode());
+        return entityMapper.toDto(brand);
+    }
+
     @Override
     public boolean deleteBrand(Long id) {
-        brandRepository.deleteById(id);
-        return !brandRepository.existsById(id);
+        int deleted = brandRepository.deleteBrandById(id);
+        evict(id, null);
+        return deleted > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BrandDTO> findAvailableBrands(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("to must not be before from");
+        }
+        return brandRepository.findAvailableBetween(from, to)
+                .stream()
+                .map(brand -> entityMapper.toDto(brand))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyOccupancyDTO> findOccupancy(Long brandId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_OCCUPANCY_DAYS) {
+            throw new ValidationException("from and to must be at most " + MAX_OCCUPANCY_DAYS + " days apart");
+        }
+        Map<LocalDate, Integer> stored = occupancyRepository.findDailyOccupancy(brandId, from, to)
+                .stream()
+                .collect(Collectors.toMap(DailyOccupancyDTO::date, DailyOccupancyDTO::activeBookings));
+        return from.datesUntil(to.plusDays(1))
+                .map(day -> new DailyOccupancyDTO(day, stored.getOrDefault(day, 0)))
+                .toList();
+    }
+
+    /**
+     * Evicts now and again after commit, so a concurrent read between the two cannot keep the old
+     * state cached.
+     */
+    private void evict(Long id, String shortCode) {
+        brandCache.evict(id);
+        brandCache.evictShortCode(shortCode);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    brandCache.evict(id);
+                    brandCache.evictShortCode(shortCode);
+                }
+            });
+        }
     }
 }
@@ -1,35 +1,60 @@
 package com.rewe.customerbookingservice.services.impl;
 
 import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import com.rewe.customerbookingservice.outbox.BookingOutbox;
+import com.rewe.customerbookingservice.rollup.OccupancyRollup;
 import com.rewe.customerbookingservice.services.CustomerService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "app.service.calls", description = "Service method calls")
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final ModelMapper modelMapper;
+    private final EntityMapper entityMapper;
+    private final BookingRepository bookingRepository;
+    private final OccupancyRollup occupancyRollup;
+    private final BookingOutbox bookingOutbox;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository, ModelMapper modelMapper) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, EntityMapper entityMapper,
+                               BookingRepository bookingRepository, OccupancyRollup occupancyRollup,
+                               BookingOutbox bookingOutbox) {
         this.customerRepository = customerRepository;
-        this.modelMapper = modelMapper;
+        this.entityMapper = entityMapper;
+        this.bookingRepository = bookingRepository;
+        this.occupancyRollup = occupancyRollup;
+        this.bookingOutbox = bookingOutbox;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CustomerDTO> findCustomerById(Long id) {
+        return customerRepository.findById(id)
+                .map(customer -> entityMapper.toDto(customer));
     }
 
     @Override
     public CustomerDTO saveCustomer(CustomerDTO customer) {
-        Customer customerEntity = modelMapper.map(customer, Customer.class);
+        Customer customerEntity = entityMapper.toEntity(customer);
         Customer savedCustomer = customerRepository.save(customerEntity);
-        return modelMapper.map(savedCustomer, CustomerDTO.class);
+        return entityMapper.toDto(savedCustomer);
     }
 
     @Override
@@ -42,14 +67,59 @@ public class CustomerServiceImpl implements CustomerService {
             customerToUpdate.setActive(customerDetails.isActive());
             customerToUpdate.setAge(customerDetails.getAge());
             Customer updatedCustomer = customerRepository.save(customerToUpdate);
-            return modelMapper.map(updatedCustomer, CustomerDTO.class);
+            // the version is incremented on flush; the response and its ETag need the new one
+            customerRepository.flush();
+            return entityMapper.toDto(updatedCustomer);
         }
         throw new EntityNotFoundException("Customer with id " + id + " not found");
     }
 
+    @Override
+    public CustomerDTO updateCustomer(Long id, CustomerDTO customerDetails, long expectedVersion) {
+        int updated = customerRepository.updateIfVersionMatches(id, expectedVersion, customerDetails.getName(),
+                customerDetails.getEmail(), customerDetails.isActive(), customerDetails.getAge(), Instant.now());
+        if (updated == 0) {
+            if (!customerRepository.existsById(id)) {
+                throw new EntityNotFoundException("Customer with id " + id + " not found");
+            }
+            throw new PreconditionFailedException("Customer " + id + " no longer has version " + expectedVersion);
+        }
+        // read back for the created timestamp of the response
+        return customerRepository.findById(id)
+                .map(customer -> entityMapper.toDto(customer))
+                .orElseThrow(EntityNotFoundException::new);
+    }
+
+    @Override
+    public CustomerDTO patchCustomer(Long id, UnaryOperator<CustomerDTO> patch, Long expectedVersion) {
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Customer with id " + id + " not found"));
+        if (expectedVersion != null && customer.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Customer " + id + " no longer has version " + expectedVersion);
+        }
+        CustomerDTO patched = patch.apply(entityMapper.toDto(customer));
+        if (Objects.equals(customer.getName(), patched.getName())
+                && Objects.equals(customer.getEmail(), patched.getEmail())
+                && customer.isActive() == patched.isActive()
+                && customer.getAge() == patched.getAge()) {
+            return entityMapper.toDto(customer);
+        }
+        customer.setName(patched.getName());
+        customer.setEmail(patched.getEmail());
+        customer.setActive(patched.isActive());
+        customer.setAge(patched.getAge());
+        customerRepository.flush();
+        return entityMapper.toDto(customer);
+    }
+
     @Override
     public boolean deleteCustomer(Long id) {
-        customerRepository.deleteById(id);
-        return !customerRepository.existsById(id);
+        // bulk delete instead of orphanRemoval, which would load every booking of the customer;
+        // only their periods are read, for the occupancy rollup and the delete events
+        List<BookingPeriodDTO> periods = bookingRepository.lockPeriodsByCustomerId(id);
+        occupancyRollup.bookingsDeleted(periods);
+        bookingRepository.deleteBookingsByCustomerId(id);
+        bookingOutbox.bookingsDeleted(periods.stream().map(BookingPeriodDTO::id).toList());
+        return customerRepository.deleteCustomerById(id) > 0;
     }
 }
@@ -0,0 +1,50 @@
+package com.rewe.customerbookingservice.services.impl;
+
+import jakarta.validation.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the offset into the ranked matches of a search as an opaque, URL safe cursor. Search
+ * pages are not ordered by id, so they cannot use {@link BookingCursors}. Every page re-ranks the
+ * matches before its offset, so the offset is capped at {@link #MAX_OFFSET}.
+ */
+final class SearchCursors {
+
+    static final long MAX_OFFSET = 1000;
+
+    private static final String PREFIX = "o:";
+
+    private SearchCursors() {
+    }
+
+    static String encode(long offset) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + offset).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the offset to continue at, {@code 0} for the first page
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        long offset;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!value.startsWith(PREFIX)) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            offset = Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+        if (offset < 0 || offset >= MAX_OFFSET) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+        return offset;
+    }
+}
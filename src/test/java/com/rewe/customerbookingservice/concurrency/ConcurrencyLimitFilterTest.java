@@ -0,0 +1,127 @@
+package com.rewe.customerbookingservice.concurrency;
+
+import com.rewe.customerbookingservice.exception.LoadSheddingException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final GradientLimiter readLimiter = new GradientLimiter("read", 1, 1, 1, 2.0, 0.2, 0.9);
+    private final GradientLimiter writeLimiter = new GradientLimiter("write", 10, 1, 10, 2.0, 0.2, 0.9);
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(readLimiter, writeLimiter, Duration.ofSeconds(2), handlerExceptionResolver);
+
+    @Test
+    void shouldShedRequestsBeyondLimit_withoutCallingTheChain() throws Exception {
+        MockHttpServletRequest shed = new MockHttpServletRequest("GET", "/api/bookings/2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain shedChain = new MockFilterChain();
+        MockFilterChain firstChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response)
+                    throws ServletException, IOException {
+                filter.doFilter(shed, new MockHttpServletResponse(), shedChain);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/bookings/1"), response, firstChain);
+
+        assertNull(shedChain.getRequest());
+        ArgumentCaptor<Exception> exception = ArgumentCaptor.forClass(Exception.class);
+        verify(handlerExceptionResolver).resolveException(eq(shed), any(), isNull(), exception.capture());
+        assertEquals(Duration.ofSeconds(2), ((LoadSheddingException) exception.getValue()).getRetryAfter());
+        assertEquals(0, readLimiter.getInflight());
+        assertEquals(1, readLimiter.getRejections());
+    }
+
+    @Test
+    void shouldLimitReadsAndWritesSeparately() throws Exception {
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response)
+                    throws ServletException, IOException {
+                assertEquals(1, readLimiter.getInflight());
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/bookings"), new MockHttpServletResponse(),
+                        new MockFilterChain(new HttpServlet() {
+                            @Override
+                            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                                assertEquals(1, writeLimiter.getInflight());
+                            }
+                        }));
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/bookings/1"), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(handlerExceptionResolver);
+        assertEquals(0, readLimiter.getInflight());
+        assertEquals(0, writeLimiter.getInflight());
+    }
+
+    @Test
+    void asyncRequest_shouldKeepItsSlotUntilCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.startAsync();
+            }
+        });
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(1, readLimiter.getInflight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(0, readLimiter.getInflight());
+    }
+
+    @Test
+    void serviceUnavailable_shouldBackOffLimit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(503);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/bookings"), response, chain);
+
+        assertEquals(9, writeLimiter.getLimit());
+        assertEquals(0, writeLimiter.getInflight());
+    }
+
+    @Test
+    void shouldPassThrough_outsideApi() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        assertEquals(0, readLimiter.getRejections());
+    }
+}
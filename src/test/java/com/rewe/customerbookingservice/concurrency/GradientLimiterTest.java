@@ -0,0 +1,93 @@
+package com.rewe.customerbookingservice.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    @Test
+    void tryAcquire_shouldRejectBeyondLimit() {
+        GradientLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejections());
+
+        limiter.release();
+
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void limit_shouldGrowWhileLatencyIsSteady() {
+        GradientLimiter limiter = limiter(20);
+
+        runBusy(limiter, 10, 20);
+
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void limit_shouldShrinkWhenLatencyRises() {
+        GradientLimiter limiter = limiter(20);
+        runBusy(limiter, 10, 20);
+        int steadyLimit = limiter.getLimit();
+
+        runBusy(limiter, 100, 3);
+
+        assertTrue(limiter.getLimit() < steadyLimit / 2, "limit " + limiter.getLimit() + " after " + steadyLimit);
+    }
+
+    @Test
+    void limit_shouldNotGrow_whenMostSlotsAreUnused() {
+        GradientLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void droppedRequest_shouldBackOffDownToMinLimit() {
+        GradientLimiter limiter = limiter(20);
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        assertEquals(18, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private static GradientLimiter limiter(int initialLimit) {
+        return new GradientLimiter("test", initialLimit, Math.min(2, initialLimit), 100, 2.0, 0.2, 0.9);
+    }
+
+    /**
+     * Fills every slot and then completes the requests with the given latency, {@code rounds} times.
+     */
+    private static void runBusy(GradientLimiter limiter, long rttMillis, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.rewe.customerbookingservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PermitLimitedDataSourceTest {
+
+    private final DataSource targetDataSource = mock(DataSource.class);
+    private final Connection targetConnection = mock(Connection.class);
+    private final PermitLimitedDataSource dataSource =
+            new PermitLimitedDataSource(targetDataSource, 1, Duration.ofMillis(20));
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+    }
+
+    @Test
+    void getConnection_shouldTimeOut_whenAllPermitsAreInUse() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getTimeouts());
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertTrue(dataSource.getMaxWait().compareTo(Duration.ofMillis(20)) >= 0);
+
+        connection.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void close_shouldReleasePermitOnce_andCloseTargetConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        assertEquals(1, dataSource.getAcquisitions());
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_shouldReleasePermit_whenTargetFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void proxy_shouldDelegateOtherCalls() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        connection.setAutoCommit(false);
+
+        verify(targetConnection).setAutoCommit(false);
+        assertEquals(connection, connection);
+        assertNotEquals(targetConnection, connection);
+    }
+}
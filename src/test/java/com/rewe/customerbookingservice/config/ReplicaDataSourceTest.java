@@ -0,0 +1,81 @@
+package com.rewe.customerbookingservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaDataSourceTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Statement statement = mock(Statement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("select lag")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+    }
+
+    @Test
+    void getConnection_shouldUseReplica_whenLagIsTolerated() throws SQLException {
+        when(resultSet.getDouble(1)).thenReturn(0.5);
+        ReplicaDataSource dataSource = dataSource("select lag", Duration.ofMinutes(1));
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(Duration.ofMillis(500), dataSource.getLag());
+        assertEquals(1, dataSource.getReplicaConnections());
+        assertEquals(0, dataSource.getFallbacks());
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenReplicaLagsTooFarBehind() throws SQLException {
+        when(resultSet.getDouble(1)).thenReturn(10.0);
+        ReplicaDataSource dataSource = dataSource("select lag", Duration.ofMinutes(1));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(2, dataSource.getFallbacks());
+        // the lag is measured once per interval
+        verify(statement, times(1)).executeQuery("select lag");
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_untilRetryInterval_whenReplicaFails() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+        ReplicaDataSource dataSource = dataSource("", Duration.ZERO);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(2, dataSource.getFallbacks());
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_shouldSkipLagCheck_whenLagQueryIsBlank() throws SQLException {
+        ReplicaDataSource dataSource = dataSource("", Duration.ZERO);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        verify(replicaConnection, never()).createStatement();
+    }
+
+    private ReplicaDataSource dataSource(String lagQuery, Duration lagCheckInterval) {
+        ReplicaProperties properties = new ReplicaProperties("jdbc:replica", null, null, 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(1), lagCheckInterval, lagQuery, Duration.ofMinutes(1));
+        return new ReplicaDataSource(replica, primary, properties);
+    }
+}
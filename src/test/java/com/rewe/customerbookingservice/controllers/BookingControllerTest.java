@@ -3,12 +3,17 @@ package com.rewe.customerbookingservice.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BookingVersionsDTO;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.exception.BookingOverlapException;
+import com.rewe.customerbookingservice.exception.LoadSheddingException;
 import com.rewe.customerbookingservice.services.BookingService;
 import com.rewe.customerbookingservice.services.BrandService;
 import com.rewe.customerbookingservice.services.CustomerService;
 import com.rewe.customerbookingservice.services.impl.BookingServiceImpl;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,22 +23,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -89,6 +106,21 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id", is(bookingDTO.getId()), Long.class));
     }
 
+    @Test
+    void testAddOverlappingBooking() throws Exception {
+        when(bookingService.saveBooking(any(BookingDTO.class)))
+                .thenThrow(new BookingOverlapException("Brand 1 already has an active booking"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/bookings")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDTO)))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title", is("Booking Overlap"), String.class));
+    }
+
     @Test
     void testAddBookingWithShortTitle() throws Exception {
         bookingDTO.setTitle("aa");
@@ -103,6 +135,35 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
     }
 
+    @Test
+    void testAddBookings() throws Exception {
+        when(bookingService.saveBookings(any())).thenReturn(List.of(bookingDTO, bookingDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/bookings/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingDTO, bookingDTO))))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].id", is(bookingDTO.getId()), Long.class));
+    }
+
+    @Test
+    void testAddBookingsWithShortTitle() throws Exception {
+        bookingDTO.setTitle("aa");
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/bookings/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingDTO))))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
+    }
+
     @Test
     void testDeleteBooking() throws Exception {
         when(bookingService.deleteBooking(1L)).thenReturn(true);
@@ -129,6 +190,63 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id", is(bookingDTO.getId()), Long.class));
     }
 
+    @Test
+    void testGetBookingByIdReturnsETag() throws Exception {
+        bookingDTO.setVersion(2L);
+        when(bookingService.findBookingById(1L)).thenReturn(bookingDTO);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/{id}", bookingDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.-.-\""));
+    }
+
+    @Test
+    void testGetBookingByIdNotModified() throws Exception {
+        when(bookingService.findBookingVersions(1L)).thenReturn(Optional.of(new BookingVersionsDTO(2L, 4L, null)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2.4.-\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.4.-\""))
+                .andExpect(content().string(""));
+        verify(bookingService, never()).findBookingById(any());
+    }
+
+    @Test
+    void testUpdateBookingWithIfMatch() throws Exception {
+        BookingDTO updated = BookingDTO.builder().id(1L).version(3L).title(bookingDTO.getTitle()).build();
+        when(bookingService.updateBooking(1L, bookingDTO, 2L)).thenReturn(updated);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/bookings/{id}", bookingDTO.getId())
+                        .with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"2.-.-\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDTO)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.-.-\""))
+                .andExpect(jsonPath("$.version", is(3L), Long.class));
+    }
+
+    @Test
+    void testUpdateBookingWithWeakIfMatch() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/bookings/{id}", bookingDTO.getId())
+                        .with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "W/\"2.-.-\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingDTO)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.title", is("Precondition Failed"), String.class));
+    }
+
     @Test
     void testUpdateBooking() throws Exception {
         when(bookingService.updateBooking(1L, bookingDTO)).thenReturn(bookingDTO);
@@ -157,4 +275,134 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPatchBooking() throws Exception {
+        bookingDTO.setDescription("Kept");
+        when(bookingService.patchBooking(eq(1L), any(), isNull())).thenAnswer(invocation -> {
+            UnaryOperator<BookingDTO> patch = invocation.getArgument(1);
+            return patch.apply(bookingDTO);
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/bookings/{id}", bookingDTO.getId())
+                        .with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"active\": true, \"title\": \"Patched title\"}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active", is(true), Boolean.class))
+                .andExpect(jsonPath("$.title", is("Patched title"), String.class))
+                .andExpect(jsonPath("$.description", is("Kept"), String.class))
+                .andExpect(jsonPath("$.brand.id", is(1L), Long.class));
+    }
+
+    @Test
+    void testPatchBookingWithShortTitle() throws Exception {
+        when(bookingService.patchBooking(eq(1L), any(), isNull())).thenAnswer(invocation -> {
+            UnaryOperator<BookingDTO> patch = invocation.getArgument(1);
+            return patch.apply(bookingDTO);
+        });
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/api/bookings/{id}", bookingDTO.getId())
+                        .with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\": \"aa\"}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
+    }
+
+    @Test
+    void testGetBookingsInRange() throws Exception {
+        when(bookingService.findBookingsInRange(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), 1L, null, null, 10))
+                .thenReturn(new BookingPageDTO(Collections.singletonList(bookingDTO), "next"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/range")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .param("brandId", "1")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id", is(bookingDTO.getId()), Long.class))
+                .andExpect(jsonPath("$.nextCursor", is("next"), String.class));
+    }
+
+    @Test
+    void testLoadSheddingReturnsTooManyRequests() throws Exception {
+        when(bookingService.findBookingById(1L))
+                .thenThrow(new LoadSheddingException("Too many concurrent read requests", Duration.ofSeconds(2)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.title", is("Too Many Requests"), String.class));
+    }
+
+    @Test
+    void testSearchBookings() throws Exception {
+        when(bookingService.searchBookings("harbour view", null, 2L, null, null))
+                .thenReturn(new BookingPageDTO(Collections.singletonList(bookingDTO), null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/search")
+                        .param("q", "harbour view")
+                        .param("customerId", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id", is(bookingDTO.getId()), Long.class))
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{64}\"")));
+    }
+
+    @Test
+    void testGetBookingsInRangeWithReversedWindow() throws Exception {
+        when(bookingService.findBookingsInRange(LocalDate.of(2024, 3, 31), LocalDate.of(2024, 3, 1), null, null, null, null))
+                .thenThrow(new ValidationException("to must not be before from"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/range")
+                        .param("from", "2024-03-31")
+                        .param("to", "2024-03-01")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
+    }
+
+    @Test
+    void testExportBookings() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDTO> consumer = invocation.getArgument(0);
+            consumer.accept(bookingDTO);
+            consumer.accept(bookingDTO);
+            return null;
+        }).when(bookingService).exportBookings(any());
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/bookings/export")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(bookingDTO, objectMapper.readValue(lines[0], BookingDTO.class));
+        assertTrue(body.endsWith("\n"));
+    }
+}
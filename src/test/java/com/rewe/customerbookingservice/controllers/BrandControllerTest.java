@@ -3,7 +3,9 @@ package com.rewe.customerbookingservice.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
 import com.rewe.customerbookingservice.services.BrandService;
 import com.rewe.customerbookingservice.services.impl.BookingServiceImpl;
 import com.rewe.customerbookingservice.services.impl.BrandServiceImpl;
@@ -14,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,8 +24,10 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -133,9 +138,92 @@ class BrandControllerTest {
                 .andExpect(content().string("true"));
     }
 
+    @Test
+    void testGetBrand() throws Exception {
+        when(brandService.findBrandById(1L)).thenReturn(Optional.of(brandDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/{id}", brandDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(brandDTO.getId()), Long.class))
+                .andExpect(jsonPath("$.name", is(brandDTO.getName()), String.class));
+    }
+
+    @Test
+    void testGetBrandNotModified() throws Exception {
+        brandDTO.setVersion(5L);
+        when(brandService.findBrandById(1L)).thenReturn(Optional.of(brandDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/{id}", brandDTO.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"5\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    void testGetBrandNotFound() throws Exception {
+        when(brandService.findBrandById(2L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/{id}", 2L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetAvailableBrands() throws Exception {
+        when(brandService.findAvailableBrands(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(List.of(brandDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/available")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(brandDTO.getId()), Long.class));
+    }
+
+    @Test
+    void testGetOccupancy() throws Exception {
+        when(brandService.findOccupancy(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 2)))
+                .thenReturn(List.of(new DailyOccupancyDTO(LocalDate.of(2024, 3, 1), 0),
+                        new DailyOccupancyDTO(LocalDate.of(2024, 3, 2), 1)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/{id}/occupancy", 1L)
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-02")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].date", is("2024-03-02")))
+                .andExpect(jsonPath("$[1].activeBookings", is(1)));
+    }
+
+    @Test
+    void testGetBrandByShortCode() throws Exception {
+        brandDTO.setShortCode("BN");
+        when(brandService.findBrandByShortCode("BN")).thenReturn(Optional.of(brandDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/brands/by-code/{shortCode}", "BN")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortCode", is("BN"), String.class));
+    }
+
     @Test
     void testGetBookingsByBrand() throws Exception {
-        when(bookingService.findBookingsByBrandId(1L)).thenReturn(Collections.singletonList(bookingDTO));
+        when(bookingService.findBookingsByBrandId(1L, null, null))
+                .thenReturn(new BookingPageDTO(Collections.singletonList(bookingDTO), null));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/brands/{id}/bookings", brandDTO.getId())
@@ -143,6 +231,6 @@ class BrandControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.[0]id", is(bookingDTO.getId()), Long.class));
+                .andExpect(jsonPath("$.bookings[0].id", is(bookingDTO.getId()), Long.class));
     }
 }
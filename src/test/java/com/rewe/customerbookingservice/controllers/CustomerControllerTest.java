@@ -2,7 +2,9 @@ package com.rewe.customerbookingservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
 import com.rewe.customerbookingservice.services.impl.BookingServiceImpl;
 import com.rewe.customerbookingservice.services.impl.CustomerServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,12 +12,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.Mockito.*;
@@ -125,6 +129,22 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.name", is(customerDTO.getName()), String.class));
     }
 
+    @Test
+    void testUpdateCustomerWithStaleIfMatch() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(CustomerDTO.class), eq(4L)))
+                .thenThrow(new PreconditionFailedException("Customer 1 no longer has version 4"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .put("/api/customers/{id}", customerDTO.getId())
+                        .with(csrf())
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDTO)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.title", is("Precondition Failed"), String.class));
+    }
+
     @Test
     void testDeleteCustomer() throws Exception {
         when(customerService.deleteCustomer(1L)).thenReturn(true);
@@ -138,17 +158,76 @@ class CustomerControllerTest {
                 .andExpect(content().string("true"));
     }
 
+    @Test
+    void testGetCustomer() throws Exception {
+        customerDTO.setVersion(3L);
+        customerDTO.setTotalBookings(4);
+        customerDTO.setActiveBookings(2);
+        when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customerDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/customers/{id}", customerDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.4.2\""))
+                .andExpect(jsonPath("$.totalBookings", is(4)))
+                .andExpect(jsonPath("$.activeBookings", is(2)));
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void testGetCustomerNotModified() throws Exception {
+        customerDTO.setVersion(3L);
+        when(customerService.findCustomerById(1L)).thenReturn(Optional.of(customerDTO));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/customers/{id}", customerDTO.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3.0.0\""))
+                .andDo(print())
+                .andExpect(status().isNotModified());
+    }
 
     @Test
     void testGetBookingsForCustomer() throws Exception {
-        when(bookingService.findBookingsByCustomerId(1L)).thenReturn(Collections.singletonList(bookingDTO));
+        when(bookingService.findBookingsByCustomerId(1L, null, null))
+                .thenReturn(new BookingPageDTO(Collections.singletonList(bookingDTO), null));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/customers/{id}/bookings", customerDTO.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id", is(bookingDTO.getId()), Long.class));
+    }
+
+    @Test
+    void testGetBookingsForCustomerWithCursor() throws Exception {
+        when(bookingService.findBookingsByCustomerId(1L, "MQ", 1))
+                .thenReturn(new BookingPageDTO(Collections.singletonList(bookingDTO), "Mg"));
 
         mockMvc.perform(MockMvcRequestBuilders
                         .get("/api/customers/{id}/bookings", customerDTO.getId())
+                        .param("cursor", "MQ")
+                        .param("size", "1")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.[0]id", is(bookingDTO.getId()), Long.class));
+                .andExpect(jsonPath("$.bookings[0].id", is(bookingDTO.getId()), Long.class))
+                .andExpect(jsonPath("$.nextCursor", is("Mg")));
+    }
+
+    @Test
+    void testGetBookingsForCustomerWithInvalidSize() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/customers/{id}/bookings", customerDTO.getId())
+                        .param("size", "0")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title", is("Constraint Violation Exception"), String.class));
     }
 }
@@ -0,0 +1,252 @@
+package com.rewe.customerbookingservice.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String ID = "/api/customers key-1";
+
+    private final IdempotencyStore idempotencyStore = mock(IdempotencyStore.class);
+    private final IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, Set.of("/api/customers"),
+            new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void shouldRecordSuccessfulResponse_whenKeyIsClaimed() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{\"name\":\"A\"}"), response, new MockFilterChain(new StatusServlet(201, "{\"id\":1}")));
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        verify(idempotencyStore).complete(eq(ID), any(StoredResponse.class));
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void shouldReleaseKey_whenResponseIsNotSuccessful() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{}"), response, new MockFilterChain(new StatusServlet(400, "{}")));
+
+        assertEquals(400, response.getStatus());
+        verify(idempotencyStore).release(eq(ID), anyString());
+        verify(idempotencyStore, never()).complete(anyString(), any());
+    }
+
+    @Test
+    void shouldKeepKeyClaimed_whenResponseIsServerError() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{}"), response, new MockFilterChain(new StatusServlet(500, "{}")));
+
+        assertEquals(500, response.getStatus());
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+        verify(idempotencyStore, never()).complete(anyString(), any());
+    }
+
+    @Test
+    void shouldRunRetry_afterDatabaseWasUnavailable() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse unavailable = new MockHttpServletResponse();
+
+        filter.doFilter(request("{}"), unavailable, new MockFilterChain(new StatusServlet(503, "{}")));
+
+        assertEquals(503, unavailable.getStatus());
+        verify(idempotencyStore).release(eq(ID), anyString());
+
+        MockHttpServletResponse retried = new MockHttpServletResponse();
+        filter.doFilter(request("{}"), retried, new MockFilterChain(new StatusServlet(201, "{\"id\":1}")));
+
+        assertEquals(201, retried.getStatus());
+        assertEquals("{\"id\":1}", retried.getContentAsString());
+        verify(idempotencyStore, times(2)).claim(eq(ID), anyString());
+        verify(idempotencyStore).complete(eq(ID), any(StoredResponse.class));
+    }
+
+    @Test
+    void shouldReleaseKey_whenRequestIsShed() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{}"), response, new MockFilterChain(new StatusServlet(429, "{}")));
+
+        assertEquals(429, response.getStatus());
+        verify(idempotencyStore).release(eq(ID), anyString());
+    }
+
+    @Test
+    void shouldKeepKeyClaimed_whenHandlerThrows() {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                throw new IllegalStateException("after commit");
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request("{}"), new MockHttpServletResponse(), chain));
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void shouldPassBodyToReadListener() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                ServletInputStream input = request.getInputStream();
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        while (input.isReady() && !input.isFinished()) {
+                            body.write(input.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() throws IOException {
+                        response.setStatus(201);
+                        response.getOutputStream().write(body.toByteArray());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        response.setStatus(500);
+                    }
+                });
+            }
+        });
+
+        filter.doFilter(request("{\"name\":\"A\"}"), response, chain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"name\":\"A\"}", response.getContentAsString());
+    }
+
+    @Test
+    void shouldReplayStoredResponse_withoutCallingTheChain() throws Exception {
+        MockHttpServletRequest request = request("{\"name\":\"A\"}");
+        StoredResponse stored = StoredResponse.of(sha256Of(request), 201, "application/json",
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8), Instant.now().plusSeconds(60));
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.of(stored));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertNull(chain.getRequest());
+        verify(idempotencyStore, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    void shouldReturnConflict_whileFirstRequestIsRunning() throws Exception {
+        MockHttpServletRequest request = request("{}");
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.empty());
+        when(idempotencyStore.claim(eq(ID), anyString())).thenReturn(false);
+        when(idempotencyStore.find(ID)).thenReturn(Optional.of(
+                new StoredResponse(sha256Of(request), null, null, null, Instant.now().plusSeconds(60))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntity_whenKeyIsReusedForDifferentBody() throws Exception {
+        when(idempotencyStore.cached(ID)).thenReturn(Optional.of(StoredResponse.of("other", 201, "application/json",
+                new byte[0], Instant.now().plusSeconds(60))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{}"), response, new MockFilterChain());
+
+        assertEquals(422, response.getStatus());
+        assertEquals("application/problem+json", response.getContentType());
+    }
+
+    @Test
+    void shouldPassThrough_withoutKey() throws Exception {
+        MockHttpServletRequest request = request("{}");
+        request.removeHeader(IdempotencyFilter.IDEMPOTENCY_KEY);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String sha256Of(MockHttpServletRequest request) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(request.getContentAsByteArray()));
+    }
+
+    private static final class StatusServlet extends HttpServlet {
+
+        private final int status;
+        private final String body;
+
+        StatusServlet(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            request.getInputStream().readAllBytes();
+            response.setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.data.repositories.BrandRepository;
 import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
 import com.rewe.customerbookingservice.services.BookingService;
 import com.rewe.customerbookingservice.services.BrandService;
 import org.junit.jupiter.api.AfterEach;
@@ -19,12 +21,18 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -91,6 +99,109 @@ class BookingControllerIntegrationTest {
         assertThat(booking.get().getTitle()).isEqualTo("New Booking");
     }
 
+    @Test
+    void testAddOverlappingBookingReturnsConflict() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings");
+        BookingDTO first = BookingDTO.builder()
+                .title("First Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build();
+        BookingDTO overlapping = BookingDTO.builder()
+                .title("Overlapping Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 3, 10))
+                .endDate(LocalDate.of(2024, 3, 20))
+                .build();
+        BookingDTO adjacent = BookingDTO.builder()
+                .title("Adjacent Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 3, 11))
+                .endDate(LocalDate.of(2024, 3, 20))
+                .build();
+
+        assertThat(restTemplate.postForEntity(uri, first, BookingDTO.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<ProblemDetail> conflict = restTemplate.postForEntity(uri, overlapping, ProblemDetail.class);
+        assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(conflict.getBody().getTitle()).isEqualTo("Booking Overlap");
+
+        assertThat(restTemplate.postForEntity(uri, adjacent, BookingDTO.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void testAddBookings() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/bulk");
+
+        List<BookingDTO> bookingDTOs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            BookingDTO bookingDTO = new BookingDTO();
+            bookingDTO.setTitle("Bulk Booking " + i);
+            bookingDTOs.add(bookingDTO);
+        }
+
+        ResponseEntity<List<BookingDTO>> responseEntity = restTemplate.exchange(
+                uri,
+                HttpMethod.POST,
+                new HttpEntity<>(bookingDTOs),
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(responseEntity.getBody()).hasSize(120);
+        assertThat(responseEntity.getBody()).extracting(BookingDTO::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(responseEntity.getBody().get(119).getTitle()).isEqualTo("Bulk Booking 119");
+        assertThat(bookingRepository.count()).isEqualTo(120);
+    }
+
+    @Test
+    void testAddOverlappingBookingsReturnsConflict() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/bulk");
+        BookingDTO existing = BookingDTO.builder()
+                .title("Existing Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build();
+        BookingDTO first = BookingDTO.builder()
+                .title("First Bulk Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 4, 1))
+                .endDate(LocalDate.of(2024, 4, 10))
+                .build();
+        BookingDTO overlappingFirst = BookingDTO.builder()
+                .title("Overlapping Bulk Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 4, 10))
+                .endDate(LocalDate.of(2024, 4, 20))
+                .build();
+        BookingDTO overlappingExisting = BookingDTO.builder()
+                .title("Overlapping Existing Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(testBrand.getId()).build())
+                .startDate(LocalDate.of(2024, 3, 5))
+                .endDate(LocalDate.of(2024, 3, 6))
+                .build();
+
+        assertThat(restTemplate.postForEntity(uri, List.of(existing), String.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<ProblemDetail> withinBatch = restTemplate.postForEntity(uri, List.of(first, overlappingFirst), ProblemDetail.class);
+        assertThat(withinBatch.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(withinBatch.getBody().getTitle()).isEqualTo("Booking Overlap");
+
+        ResponseEntity<ProblemDetail> withExisting = restTemplate.postForEntity(uri, List.of(first, overlappingExisting), ProblemDetail.class);
+        assertThat(withExisting.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
     @Test
     void testGetBookingById() throws URISyntaxException {
         Booking booking = new Booking();
@@ -131,6 +242,86 @@ class BookingControllerIntegrationTest {
         assertThat(bookingResult.get().getTitle()).isEqualTo("Updated Booking");
     }
 
+    @Test
+    void testUnconditionalUpdateReturnsETagForIfMatch() throws URISyntaxException {
+        Booking booking = saveBooking("Unconditional Booking", false, null, null);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/" + booking.getId());
+
+        BookingDTO update = BookingDTO.builder().title("Unconditionally Updated Booking").build();
+        ResponseEntity<BookingDTO> updated = restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(update), BookingDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(updated.getHeaders().getETag());
+        BookingDTO conditionalUpdate = BookingDTO.builder().title("Conditionally Updated Booking").build();
+        ResponseEntity<BookingDTO> conditional = restTemplate.exchange(uri, HttpMethod.PUT,
+                new HttpEntity<>(conditionalUpdate, ifMatch), BookingDTO.class);
+
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void testConditionalGetAndUpdate() throws URISyntaxException {
+        Booking booking = saveBooking("Versioned Booking", false, null, null);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/" + booking.getId());
+
+        String etag = restTemplate.getForEntity(uri, BookingDTO.class).getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        HttpHeaders ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.setIfNoneMatch(etag);
+        ResponseEntity<BookingDTO> notModified = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(ifNoneMatch), BookingDTO.class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(etag);
+        BookingDTO update = BookingDTO.builder().title("Updated Versioned Booking").build();
+        ResponseEntity<BookingDTO> updated = restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(update, ifMatch), BookingDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(updated.getBody()).isNotNull();
+        assertThat(updated.getBody().getCustomer().getName()).isEqualTo("Test Customer");
+
+        BookingDTO staleUpdate = BookingDTO.builder().title("Stale Versioned Booking").build();
+        ResponseEntity<ProblemDetail> stale = restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(staleUpdate, ifMatch), ProblemDetail.class);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        assertThat(bookingRepository.findById(booking.getId()))
+                .get()
+                .extracting(Booking::getTitle)
+                .isEqualTo("Updated Versioned Booking");
+    }
+
+    @Test
+    void testPatchBookingWritesOnlyChanges() throws URISyntaxException {
+        Booking booking = saveBooking("Patched Booking", false, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 10));
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/" + booking.getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+
+        ResponseEntity<BookingDTO> activated = restTemplate.exchange(uri, HttpMethod.PATCH,
+                new HttpEntity<>("{\"active\": true}", headers), BookingDTO.class);
+        assertThat(activated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(activated.getBody()).isNotNull();
+        assertThat(activated.getBody().isActive()).isTrue();
+        assertThat(activated.getBody().getTitle()).isEqualTo("Patched Booking");
+        assertThat(activated.getBody().getVersion()).isEqualTo(booking.getVersion() + 1);
+
+        ResponseEntity<BookingDTO> unchanged = restTemplate.exchange(uri, HttpMethod.PATCH,
+                new HttpEntity<>("{\"active\": true}", headers), BookingDTO.class);
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(unchanged.getHeaders().getETag()).isEqualTo(activated.getHeaders().getETag());
+
+        assertThat(bookingRepository.findById(booking.getId()))
+                .get()
+                .satisfies(patched -> {
+                    assertThat(patched.isActive()).isTrue();
+                    assertThat(patched.getStartDate()).isEqualTo(LocalDate.of(2024, 7, 1));
+                    assertThat(patched.getVersion()).isEqualTo(booking.getVersion() + 1);
+                });
+    }
+
     @Test
     void testDeleteBooking() throws URISyntaxException {
         Booking booking = new Booking();
@@ -144,5 +335,105 @@ class BookingControllerIntegrationTest {
         Optional<Booking> bookingResult = bookingRepository.findById(savedBooking.getId());
         assertThat(bookingResult).isNotPresent();
     }
-}
 
+    @Test
+    void testGetBookingsInRange() throws URISyntaxException {
+        Booking first = saveBooking("First In Range", true, LocalDate.of(2024, 2, 25), LocalDate.of(2024, 3, 2));
+        Booking second = saveBooking("Second In Range", true, LocalDate.of(2024, 3, 20), LocalDate.of(2024, 4, 5));
+        saveBooking("Inactive In Range", false, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 12));
+        saveBooking("Before Range", true, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10));
+
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/range?from=2024-03-01&to=2024-03-31"
+                + "&customerId=" + testCustomer.getId() + "&size=1");
+
+        ResponseEntity<BookingPageDTO> firstPage = restTemplate.getForEntity(uri, BookingPageDTO.class);
+
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).isNotNull();
+        assertThat(firstPage.getBody().getBookings()).extracting(BookingDTO::getId).containsExactly(first.getId());
+        assertThat(firstPage.getBody().getNextCursor()).isNotNull();
+
+        ResponseEntity<BookingPageDTO> secondPage = restTemplate.getForEntity(
+                new URI(uri + "&cursor=" + firstPage.getBody().getNextCursor()), BookingPageDTO.class);
+
+        assertThat(secondPage.getBody()).isNotNull();
+        assertThat(secondPage.getBody().getBookings()).extracting(BookingDTO::getId).containsExactly(second.getId());
+        assertThat(secondPage.getBody().getBookings().get(0).getBrand().getName()).isEqualTo("Test Brand");
+        assertThat(secondPage.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    void testGetBookingsInRangeWithReversedWindowReturnsBadRequest() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/range?from=2024-03-31&to=2024-03-01");
+
+        ResponseEntity<ProblemDetail> responseEntity = restTemplate.getForEntity(uri, ProblemDetail.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testSearchBookingsRanksTitleMatchesFirst() throws URISyntaxException {
+        Booking inDescription = saveBooking("Weekly Slot", false, null, null);
+        inDescription.setDescription("Next to the harbour window");
+        bookingRepository.save(inDescription);
+        Booking inTitle = saveBooking("Harbour View", false, null, null);
+        saveBooking("Garden View", false, null, null);
+
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/search?q=harbour&size=1");
+
+        ResponseEntity<BookingPageDTO> firstPage = restTemplate.getForEntity(uri, BookingPageDTO.class);
+
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).isNotNull();
+        assertThat(firstPage.getBody().getBookings()).extracting(BookingDTO::getId).containsExactly(inTitle.getId());
+        assertThat(firstPage.getBody().getNextCursor()).isNotNull();
+
+        ResponseEntity<BookingPageDTO> secondPage = restTemplate.getForEntity(
+                new URI(uri + "&cursor=" + firstPage.getBody().getNextCursor()), BookingPageDTO.class);
+
+        assertThat(secondPage.getBody()).isNotNull();
+        assertThat(secondPage.getBody().getBookings()).extracting(BookingDTO::getId).containsExactly(inDescription.getId());
+        assertThat(secondPage.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    void testSearchBookingsWithBlankQueryReturnsBadRequest() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/search?q=%20");
+
+        ResponseEntity<ProblemDetail> responseEntity = restTemplate.getForEntity(uri, ProblemDetail.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testExportBookings() throws URISyntaxException {
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setTitle("Exported Booking " + i);
+            booking.setBrand(testBrand);
+            booking.setCustomer(testCustomer);
+            bookingRepository.save(booking);
+        }
+
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/bookings/export");
+
+        ResponseEntity<String> responseEntity = restTemplate.getForEntity(uri, String.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(responseEntity.getBody()).isNotNull();
+        assertThat(responseEntity.getBody().lines()).hasSize(3)
+                .allSatisfy(line -> assertThat(line).contains("\"Test Brand\"", "\"Test Customer\""));
+    }
+
+    private Booking saveBooking(String title, boolean active, LocalDate startDate, LocalDate endDate) {
+        Booking booking = new Booking();
+        booking.setTitle(title);
+        booking.setActive(active);
+        booking.setStartDate(startDate);
+        booking.setEndDate(endDate);
+        booking.setBrand(testBrand);
+        booking.setCustomer(testCustomer);
+        return bookingRepository.save(booking);
+    }
+}
@@ -3,10 +3,15 @@ package com.rewe.customerbookingservice.integration.controllers;
 import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
 import com.rewe.customerbookingservice.data.entities.Booking;
 import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
 import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.data.repositories.BrandRepository;
 import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +20,14 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +51,9 @@ class BrandControllerIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @AfterEach
     void cleanupTestEntities() {
         bookingRepository.deleteAll();
@@ -69,6 +79,26 @@ class BrandControllerIntegrationTest {
         assertThat(brand.get().getName()).isEqualTo("New Brand");
     }
 
+    @Test
+    void testUnconditionalUpdateReturnsETagForIfMatch() throws URISyntaxException {
+        Brand brand = new Brand();
+        brand.setName("Unconditional Brand");
+        Brand savedBrand = brandRepository.save(brand);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/brands/" + savedBrand.getId());
+
+        BrandDTO update = BrandDTO.builder().name("Unconditionally Updated Brand").build();
+        ResponseEntity<BrandDTO> updated = restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(update), BrandDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(updated.getHeaders().getETag());
+        BrandDTO conditionalUpdate = BrandDTO.builder().name("Conditionally Updated Brand").build();
+        ResponseEntity<BrandDTO> conditional = restTemplate.exchange(uri, HttpMethod.PUT,
+                new HttpEntity<>(conditionalUpdate, ifMatch), BrandDTO.class);
+
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void testUpdateBrand() throws URISyntaxException {
         BrandDTO brandDTO = new BrandDTO();
@@ -139,13 +169,118 @@ class BrandControllerIntegrationTest {
         // Assuming brand already has a booking associated
         URI uri = new URI("http://localhost:" + randomServerPort + "/api/brands/" + testBrand.getId() + "/bookings");
 
-        ResponseEntity<List> responseEntity = restTemplate.getForEntity(uri, List.class);
+        ResponseEntity<BookingPageDTO> responseEntity = restTemplate.getForEntity(uri, BookingPageDTO.class);
 
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(responseEntity.getBody()).isNotNull();
-        assertThat(responseEntity.getBody().size()).isEqualTo(1);
+        assertThat(responseEntity.getBody().getBookings().size()).isEqualTo(1);
+        assertThat(responseEntity.getBody().getNextCursor()).isNull();
 
         List<Booking> bookings = bookingRepository.findByBrandId(testBrand.getId());
         assertThat(bookings).hasSize(1);
     }
+
+    @Test
+    void testGetAvailableBrands() throws URISyntaxException {
+        Brand booked = saveBrand("Booked Brand");
+        Brand free = saveBrand("Free Brand");
+        Brand inactive = saveBrand("Inactive Brand");
+        saveBooking(booked, true, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 20));
+        saveBooking(free, true, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 10));
+        saveBooking(inactive, false, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 20));
+
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/brands/available?from=2024-03-01&to=2024-03-31");
+
+        ResponseEntity<List<BrandDTO>> responseEntity = restTemplate.exchange(
+                uri, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody())
+                .extracting(BrandDTO::getId)
+                .contains(free.getId(), inactive.getId())
+                .doesNotContain(booked.getId());
+    }
+
+    @Test
+    void testGetBrandIsServedFromCacheAndRefreshedAfterUpdate() throws URISyntaxException {
+        Brand brand = new Brand();
+        brand.setName("Cached Brand");
+        brand.setShortCode("CB");
+        Brand savedBrand = brandRepository.save(brand);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/brands/" + savedBrand.getId());
+        URI shortCodeUri = new URI("http://localhost:" + randomServerPort + "/api/brands/by-code/CB");
+
+        assertThat(restTemplate.getForEntity(uri, BrandDTO.class).getBody().getName()).isEqualTo("Cached Brand");
+        assertThat(restTemplate.getForEntity(shortCodeUri, BrandDTO.class).getBody().getId()).isEqualTo(savedBrand.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(restTemplate.getForEntity(uri, BrandDTO.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity(shortCodeUri, BrandDTO.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        BrandDTO brandDTO = BrandDTO.builder().name("Renamed Brand").shortCode("RB").build();
+        restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(brandDTO), BrandDTO.class);
+
+        assertThat(restTemplate.getForEntity(uri, BrandDTO.class).getBody().getName()).isEqualTo("Renamed Brand");
+        assertThat(restTemplate.getForEntity(shortCodeUri, BrandDTO.class).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetBookingsByBrandExecutesConstantNumberOfStatements() throws URISyntaxException {
+        var testBrand = new Brand();
+        testBrand.setName("Test Brand");
+        testBrand = brandRepository.save(testBrand);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/brands/" + testBrand.getId() + "/bookings");
+
+        saveBookingsWithDistinctCustomers(testBrand, 1);
+        // the first request loads the brand into the brand cache
+        countStatements(uri);
+        long statementsForOneBooking = countStatements(uri);
+
+        saveBookingsWithDistinctCustomers(testBrand, 10);
+        long statementsForElevenBookings = countStatements(uri);
+
+        assertThat(statementsForElevenBookings).isEqualTo(statementsForOneBooking);
+    }
+
+    private void saveBookingsWithDistinctCustomers(Brand brand, int count) {
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customer = customerRepository.save(customer);
+
+            Booking booking = new Booking();
+            booking.setTitle("Test Booking " + i);
+            booking.setBrand(brand);
+            booking.setCustomer(customer);
+            bookingRepository.save(booking);
+        }
+    }
+
+    private long countStatements(URI uri) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<BookingPageDTO> responseEntity = restTemplate.getForEntity(uri, BookingPageDTO.class);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Brand saveBrand(String name) {
+        Brand brand = new Brand();
+        brand.setName(name);
+        return brandRepository.save(brand);
+    }
+
+    private void saveBooking(Brand brand, boolean active, LocalDate startDate, LocalDate endDate) {
+        Booking booking = new Booking();
+        booking.setTitle("Booking of " + brand.getName());
+        booking.setActive(active);
+        booking.setStartDate(startDate);
+        booking.setEndDate(endDate);
+        booking.setBrand(brand);
+        bookingRepository.save(booking);
+    }
 }
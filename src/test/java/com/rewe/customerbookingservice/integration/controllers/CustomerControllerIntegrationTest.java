@@ -2,21 +2,27 @@ package com.rewe.customerbookingservice.integration.controllers;
 
 import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
 import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
 import com.rewe.customerbookingservice.data.entities.Customer;
 import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.data.repositories.BrandRepository;
 import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -46,7 +52,9 @@ class CustomerControllerIntegrationTest {
     @Autowired
     private BrandRepository brandRepository;
     @Autowired
-    private ModelMapper modelMapper;
+    private EntityMapper entityMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @AfterEach
     void cleanupTestEntities() {
@@ -75,6 +83,31 @@ class CustomerControllerIntegrationTest {
         assertThat(customer.getName()).isEqualTo("New Customer");
     }
 
+    @Test
+    void testUnconditionalUpdateReturnsETagForIfMatch() throws URISyntaxException {
+        Customer customer = new Customer();
+        customer.setName("Unconditional Customer");
+        customer.setEmail("asd@asd.com");
+        Customer savedCustomer = customerRepository.save(customer);
+        CustomerDTO customerDTO = entityMapper.toDto(savedCustomer);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId());
+
+        customerDTO.setName("Unconditionally Updated Customer");
+        ResponseEntity<CustomerDTO> updated = restTemplate.exchange(uri, HttpMethod.PUT, new HttpEntity<>(customerDTO),
+                CustomerDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getBody()).isNotNull();
+        assertThat(updated.getBody().getVersion()).isEqualTo(savedCustomer.getVersion() + 1);
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(updated.getHeaders().getETag());
+        customerDTO.setName("Conditionally Updated Customer");
+        ResponseEntity<CustomerDTO> conditional = restTemplate.exchange(uri, HttpMethod.PUT,
+                new HttpEntity<>(customerDTO, ifMatch), CustomerDTO.class);
+
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void testUpdateCustomer() throws URISyntaxException {
         Customer customer = new Customer();
@@ -83,7 +116,7 @@ class CustomerControllerIntegrationTest {
         customer.setAge(22);
         customer.setEmail("asd@asd.com");
         Customer savedCustomer = customerRepository.save(customer);
-        CustomerDTO customerDTO = modelMapper.map(savedCustomer, CustomerDTO.class);
+        CustomerDTO customerDTO = entityMapper.toDto(savedCustomer);
 
         URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId());
 
@@ -133,6 +166,41 @@ class CustomerControllerIntegrationTest {
         assertThat(updated.isPresent()).isFalse();
     }
 
+    @Test
+    void testDeleteCustomerWithBookingsUsesTwoStatements() throws URISyntaxException {
+        Customer customer = new Customer();
+        customer.setName("Customer With Bookings");
+        Customer savedCustomer = customerRepository.save(customer);
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setTitle("Test Booking" + i);
+            booking.setCustomer(savedCustomer);
+            bookingRepository.save(booking);
+        }
+
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<Boolean> responseEntity = restTemplate.exchange(uri, HttpMethod.DELETE, null, Boolean.class);
+
+        assertThat(responseEntity.getBody()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(customerRepository.findById(savedCustomer.getId())).isNotPresent();
+        assertThat(bookingRepository.findByCustomerId(savedCustomer.getId())).isEmpty();
+    }
+
+    @Test
+    void testDeleteMissingCustomerReturnsFalse() throws URISyntaxException {
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + Long.MAX_VALUE);
+
+        ResponseEntity<Boolean> responseEntity = restTemplate.exchange(uri, HttpMethod.DELETE, null, Boolean.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody()).isFalse();
+    }
+
     @Test
     void testGetBookingsForCustomer() throws URISyntaxException {
         Customer customer = new Customer();
@@ -152,7 +220,7 @@ class CustomerControllerIntegrationTest {
 
         URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId() + "/bookings");
 
-        ResponseEntity<List<BookingDTO>> responseEntity = restTemplate.exchange(
+        ResponseEntity<BookingPageDTO> responseEntity = restTemplate.exchange(
                 uri,
                 HttpMethod.GET,
                 null,
@@ -162,9 +230,138 @@ class CustomerControllerIntegrationTest {
 
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(responseEntity.getBody()).isNotNull();
-        assertThat(responseEntity.getBody().size()).isEqualTo(2);
+        assertThat(responseEntity.getBody().getBookings().size()).isEqualTo(2);
 
         List<Booking> bookings = bookingRepository.findByCustomerId(savedCustomer.getId());
         assertThat(bookings).hasSize(2);
     }
+
+    @Test
+    void testGetBookingsForCustomerPagesWithCursor() throws URISyntaxException {
+        Customer customer = new Customer();
+        customer.setName("Customer With Pages");
+        customer.setActive(true);
+        customer.setAge(22);
+        customer.setEmail("asd@asd.com");
+        Customer savedCustomer = customerRepository.save(customer);
+        for (int i = 0; i < 3; i++) {
+            Booking booking = new Booking();
+            booking.setTitle("Test Booking" + i);
+            booking.setCustomer(savedCustomer);
+            bookingRepository.save(booking);
+        }
+        String baseUri = "http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId() + "/bookings?size=2";
+
+        BookingPageDTO firstPage = restTemplate.getForObject(new URI(baseUri), BookingPageDTO.class);
+        assertThat(firstPage.getBookings()).hasSize(2);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        BookingPageDTO secondPage = restTemplate.getForObject(new URI(baseUri + "&cursor=" + firstPage.getNextCursor()), BookingPageDTO.class);
+        assertThat(secondPage.getBookings()).hasSize(1);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(secondPage.getBookings().get(0).getId()).isGreaterThan(firstPage.getBookings().get(1).getId());
+    }
+
+    @Test
+    void testGetBookingsForCustomerExecutesConstantNumberOfStatements() throws URISyntaxException {
+        Customer customer = new Customer();
+        customer.setName("Customer With Bookings");
+        customer.setActive(true);
+        customer.setAge(22);
+        customer.setEmail("asd@asd.com");
+        Customer savedCustomer = customerRepository.save(customer);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId() + "/bookings");
+
+        saveBookingsWithDistinctBrands(savedCustomer, 1);
+        long statementsForOneBooking = countStatements(uri);
+
+        saveBookingsWithDistinctBrands(savedCustomer, 10);
+        long statementsForElevenBookings = countStatements(uri);
+
+        assertThat(statementsForElevenBookings).isEqualTo(statementsForOneBooking);
+    }
+
+    @Test
+    void testGetCustomerReturnsMaintainedBookingCounters() {
+        Customer customer = new Customer();
+        customer.setName("Counted Customer");
+        customer.setAge(22);
+        Customer savedCustomer = customerRepository.save(customer);
+        String bookingsUrl = "http://localhost:" + randomServerPort + "/api/bookings";
+        CustomerDTO customerReference = CustomerDTO.builder().id(savedCustomer.getId()).build();
+
+        BookingDTO active = restTemplate.postForEntity(bookingsUrl, BookingDTO.builder()
+                .title("Active Booking").active(true).customer(customerReference).build(), BookingDTO.class).getBody();
+        restTemplate.postForEntity(bookingsUrl, BookingDTO.builder()
+                .title("Inactive Booking").customer(customerReference).build(), BookingDTO.class);
+        restTemplate.postForEntity(bookingsUrl, BookingDTO.builder()
+                .title("Other Active Booking").active(true).customer(customerReference).build(), BookingDTO.class);
+        restTemplate.delete(bookingsUrl + "/" + active.getId());
+
+        ResponseEntity<CustomerDTO> responseEntity = restTemplate.getForEntity(
+                "http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId(), CustomerDTO.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody().getTotalBookings()).isEqualTo(2);
+        assertThat(responseEntity.getBody().getActiveBookings()).isEqualTo(1);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo("\"" + responseEntity.getBody().getVersion() + ".2.1\"");
+    }
+
+    @Test
+    void testBookingWriteKeepsCustomerIfMatchValid() throws URISyntaxException {
+        Customer customer = new Customer();
+        customer.setName("Booked Customer");
+        customer.setAge(22);
+        Customer savedCustomer = customerRepository.save(customer);
+        URI uri = new URI("http://localhost:" + randomServerPort + "/api/customers/" + savedCustomer.getId());
+        ResponseEntity<CustomerDTO> before = restTemplate.getForEntity(uri, CustomerDTO.class);
+
+        restTemplate.postForEntity("http://localhost:" + randomServerPort + "/api/bookings", BookingDTO.builder()
+                .title("Counted Booking").active(true)
+                .customer(CustomerDTO.builder().id(savedCustomer.getId()).build()).build(), BookingDTO.class);
+
+        ResponseEntity<CustomerDTO> after = restTemplate.getForEntity(uri, CustomerDTO.class);
+        assertThat(after.getBody().getVersion()).isEqualTo(before.getBody().getVersion());
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(before.getHeaders().getETag());
+        CustomerDTO customerDTO = before.getBody();
+        customerDTO.setName("Renamed Booked Customer");
+        ResponseEntity<CustomerDTO> updated = restTemplate.exchange(uri, HttpMethod.PUT,
+                new HttpEntity<>(customerDTO, ifMatch), CustomerDTO.class);
+
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getBody().getTotalBookings()).isEqualTo(1);
+    }
+
+    private void saveBookingsWithDistinctBrands(Customer customer, int count) {
+        for (int i = 0; i < count; i++) {
+            Brand brand = new Brand();
+            brand.setName("Brand " + i);
+            brand = brandRepository.save(brand);
+
+            Booking booking = new Booking();
+            booking.setTitle("Test Booking " + i);
+            booking.setBrand(brand);
+            booking.setCustomer(customer);
+            bookingRepository.save(booking);
+        }
+    }
+
+    private long countStatements(URI uri) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<BookingPageDTO> responseEntity = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return statistics.getPrepareStatementCount();
+    }
 }
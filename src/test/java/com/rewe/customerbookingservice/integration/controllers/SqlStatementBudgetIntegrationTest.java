@@ -0,0 +1,505 @@
+package com.rewe.customerbookingservice.integration.controllers;
+
+import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.idempotency.IdempotencyFilter;
+import com.rewe.customerbookingservice.support.SqlStatementCountingConfiguration;
+import com.rewe.customerbookingservice.support.SqlStatements;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statement budgets for every endpoint. Inserts allow up to two SELECTs per sequence, which
+ * the pooled optimizer fetches only when its block is used up. Booking changes also insert one
+ * outbox event each.
+ */
+@Import(SqlStatementCountingConfiguration.class)
+@SpringBootTest(classes = CustomerBookingServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SqlStatementBudgetIntegrationTest {
+
+    private static final int SEQUENCE_SELECTS = 2;
+    private static final int BOOKING_SEQUENCE_SELECTS = 2 * SEQUENCE_SELECTS;
+
+    @LocalServerPort
+    int randomServerPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SqlStatements sqlStatements;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    private Customer customer;
+    private Brand brand;
+
+    @BeforeEach
+    void setupTestEntities() {
+        customer = new Customer();
+        customer.setName("Budget Customer");
+        customer.setAge(30);
+        customer = customerRepository.save(customer);
+
+        brand = new Brand();
+        brand.setName("Budget Brand");
+        brand.setShortCode("BB" + System.nanoTime());
+        brand = brandRepository.save(brand);
+    }
+
+    @AfterEach
+    void cleanupTestEntities() {
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    // bookings
+
+    @Test
+    void addBooking() {
+        BookingDTO bookingDTO = BookingDTO.builder()
+                .title("Budget Booking")
+                .brand(BrandDTO.builder().id(brand.getId()).build())
+                .customer(CustomerDTO.builder().id(customer.getId()).build())
+                .build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/bookings"), bookingDTO, BookingDTO.class),
+                        HttpStatus.CREATED))
+                .atMostSelects(BOOKING_SEQUENCE_SELECTS)
+                .inserts(2)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void addBookings() {
+        List<BookingDTO> bookingDTOs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            bookingDTOs.add(BookingDTO.builder().title("Budget Booking " + i).build());
+        }
+
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/bookings/bulk"), bookingDTOs, String.class),
+                        HttpStatus.CREATED))
+                .atMostSelects(BOOKING_SEQUENCE_SELECTS)
+                .inserts(2)
+                .updates(0)
+                .deletes(0);
+    }
+
+    @Test
+    void getBookingById() {
+        Booking booking = saveBooking("Budget Booking");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/bookings/" + booking.getId()), BookingDTO.class),
+                        HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void getBookingByIdNotModified() {
+        Booking booking = saveBooking("Budget Booking");
+        String etag = restTemplate.getForEntity(url("/api/bookings/" + booking.getId()), BookingDTO.class).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.GET,
+                        new HttpEntity<>(headers), BookingDTO.class), HttpStatus.NOT_MODIFIED))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void updateBooking() {
+        Booking booking = saveBooking("Budget Booking");
+        BookingDTO bookingDTO = BookingDTO.builder().title("Updated Budget Booking").build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(bookingDTO), BookingDTO.class), HttpStatus.OK))
+                .atMostSelects(1 + SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void updateBookingWithIfMatch() {
+        Booking booking = saveBooking("Budget Booking");
+        BookingDTO bookingDTO = BookingDTO.builder().title("Updated Budget Booking").build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + booking.getVersion() + "\"");
+
+        // the locked period, the versioned UPDATE and the read back for the response
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(bookingDTO, headers), BookingDTO.class), HttpStatus.OK))
+                .atMostSelects(2 + SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void patchBooking() {
+        Booking booking = saveBooking("Budget Booking");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.PATCH,
+                        mergePatch("{\"title\": \"Patched Budget Booking\"}"), BookingDTO.class), HttpStatus.OK))
+                .atMostSelects(1 + SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void patchBookingWithoutChanges() {
+        Booking booking = saveBooking("Budget Booking");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.PATCH,
+                        mergePatch("{\"title\": \"Budget Booking\"}"), BookingDTO.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void deleteBooking() {
+        Booking booking = saveBooking("Budget Booking");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/bookings/" + booking.getId()), HttpMethod.DELETE,
+                        null, Boolean.class), HttpStatus.OK))
+                .atMostSelects(1 + SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(1)
+                .deletes(1);
+    }
+
+    @Test
+    void exportBookings() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/bookings/export"), String.class),
+                        HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void getBookingsInRange() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/bookings/range?from=2024-03-01&to=2024-03-31"),
+                        String.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void searchBookings() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+        // the first search looks up which search the schema supports
+        restTemplate.getForEntity(url("/api/bookings/search?q=budget"), String.class);
+
+        // the ranked ids, then the bookings of the page with brand and customer
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/bookings/search?q=budget"),
+                        String.class), HttpStatus.OK))
+                .selects(2)
+                .noWrites();
+    }
+
+    // brands
+
+    @Test
+    void getAvailableBrands() {
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/available?from=2024-03-01&to=2024-03-31"),
+                        String.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void addBrand() {
+        BrandDTO brandDTO = BrandDTO.builder().name("New Budget Brand").build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/brands"), brandDTO, BrandDTO.class),
+                        HttpStatus.CREATED))
+                .atMostSelects(SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(0)
+                .deletes(0);
+    }
+
+    @Test
+    void updateBrand() {
+        BrandDTO brandDTO = BrandDTO.builder().name("Updated Budget Brand").build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/brands/" + brand.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(brandDTO), BrandDTO.class), HttpStatus.OK))
+                .selects(1)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void updateBrandWithIfMatch() {
+        BrandDTO brandDTO = BrandDTO.builder().name("Updated Budget Brand").build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + brand.getVersion() + "\"");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/brands/" + brand.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(brandDTO, headers), BrandDTO.class), HttpStatus.OK))
+                .selects(0)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void patchBrand() {
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/brands/" + brand.getId()), HttpMethod.PATCH,
+                        mergePatch("{\"name\": \"Patched Budget Brand\"}"), BrandDTO.class), HttpStatus.OK))
+                .selects(1)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void getOccupancy() {
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(
+                        url("/api/brands/" + brand.getId() + "/occupancy?from=2024-03-01&to=2024-03-31"), String.class),
+                        HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void deleteBrand() {
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/brands/" + brand.getId()), HttpMethod.DELETE,
+                        null, Boolean.class), HttpStatus.OK))
+                .selects(0)
+                .inserts(0)
+                .updates(0)
+                .deletes(1);
+    }
+
+    @Test
+    void getBrandHitsDatabaseOnlyOnce() {
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/" + brand.getId()), BrandDTO.class),
+                        HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/" + brand.getId()), BrandDTO.class),
+                        HttpStatus.OK))
+                .selects(0)
+                .noWrites();
+    }
+
+    @Test
+    void getBrandByShortCode() {
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/by-code/" + brand.getShortCode()),
+                        BrandDTO.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    @Test
+    void getBookingsByBrand() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+
+        // the page query plus loading the brand into the brand cache
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/" + brand.getId() + "/bookings"),
+                        String.class), HttpStatus.OK))
+                .selects(2)
+                .noWrites();
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/brands/" + brand.getId() + "/bookings"),
+                        String.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    // customers
+
+    @Test
+    void addCustomer() {
+        CustomerDTO customerDTO = CustomerDTO.builder().name("New Budget Customer").age(30).email("budget@example.com").build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/customers"), customerDTO, CustomerDTO.class),
+                        HttpStatus.CREATED))
+                .atMostSelects(SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(0)
+                .deletes(0);
+    }
+
+    /**
+     * The key is claimed by an INSERT and the response recorded by an UPDATE; the retry is answered
+     * from the in-memory copy of the response.
+     */
+    @Test
+    void addCustomerWithIdempotencyKey() {
+        CustomerDTO customerDTO = CustomerDTO.builder().name("Idempotent Budget Customer").age(30).email("budget@example.com").build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY, UUID.randomUUID().toString());
+        HttpEntity<CustomerDTO> request = new HttpEntity<>(customerDTO, headers);
+
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/customers"), request, CustomerDTO.class),
+                        HttpStatus.CREATED))
+                .atMostSelects(SEQUENCE_SELECTS)
+                .inserts(2)
+                .updates(1)
+                .deletes(0);
+        sqlStatements.count(() -> assertStatus(restTemplate.postForEntity(url("/api/customers"), request, CustomerDTO.class),
+                        HttpStatus.CREATED))
+                .selects(0)
+                .noWrites();
+    }
+
+    @Test
+    void getCustomerById() {
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/customers/" + customer.getId()), CustomerDTO.class),
+                        HttpStatus.OK))
+                .atMostSelects(1)
+                .noWrites();
+    }
+
+    @Test
+    void updateCustomer() {
+        CustomerDTO customerDTO = CustomerDTO.builder().name("Updated Budget Customer").age(30).email("budget@example.com").build();
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/customers/" + customer.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(customerDTO), CustomerDTO.class), HttpStatus.OK))
+                .selects(1)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void getCustomerByIdNotModified() {
+        String etag = restTemplate.getForEntity(url("/api/customers/" + customer.getId()), CustomerDTO.class).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/customers/" + customer.getId()), HttpMethod.GET,
+                        new HttpEntity<>(headers), CustomerDTO.class), HttpStatus.NOT_MODIFIED))
+                .atMostSelects(1)
+                .noWrites();
+    }
+
+    /**
+     * The versioned UPDATE is a bulk update, so the customer is read back for the response.
+     */
+    @Test
+    void updateCustomerWithIfMatch() {
+        CustomerDTO customerDTO = CustomerDTO.builder().name("Updated Budget Customer").age(30).email("budget@example.com").build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + customer.getVersion() + "\"");
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/customers/" + customer.getId()), HttpMethod.PUT,
+                        new HttpEntity<>(customerDTO, headers), CustomerDTO.class), HttpStatus.OK))
+                .selects(1)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void patchCustomer() {
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/customers/" + customer.getId()), HttpMethod.PATCH,
+                        mergePatch("{\"name\": \"Patched Budget Customer\"}"), CustomerDTO.class), HttpStatus.OK))
+                .selects(1)
+                .inserts(0)
+                .updates(1)
+                .deletes(0);
+    }
+
+    @Test
+    void deleteCustomer() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+
+        sqlStatements.count(() -> assertStatus(restTemplate.exchange(url("/api/customers/" + customer.getId()), HttpMethod.DELETE,
+                        null, Boolean.class), HttpStatus.OK))
+                .atMostSelects(1 + SEQUENCE_SELECTS)
+                .inserts(1)
+                .updates(0)
+                .deletes(2);
+    }
+
+    @Test
+    void getBookingsForCustomer() {
+        for (int i = 0; i < 5; i++) {
+            saveBooking("Budget Booking " + i);
+        }
+
+        sqlStatements.count(() -> assertStatus(restTemplate.getForEntity(url("/api/customers/" + customer.getId() + "/bookings"),
+                        String.class), HttpStatus.OK))
+                .selects(1)
+                .noWrites();
+    }
+
+    private Booking saveBooking(String title) {
+        Booking booking = new Booking();
+        booking.setTitle(title);
+        booking.setBrand(brand);
+        booking.setCustomer(customer);
+        return bookingRepository.save(booking);
+    }
+
+    private static HttpEntity<String> mergePatch(String patch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        return new HttpEntity<>(patch, headers);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + randomServerPort + path;
+    }
+
+    private static void assertStatus(ResponseEntity<?> responseEntity, HttpStatus status) {
+        assertThat(responseEntity.getStatusCode()).isEqualTo(status);
+    }
+}
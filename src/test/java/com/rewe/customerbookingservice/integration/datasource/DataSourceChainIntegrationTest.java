@@ -0,0 +1,44 @@
+package com.rewe.customerbookingservice.integration.datasource;
+
+import com.rewe.customerbookingservice.config.PermitLimitedDataSource;
+import com.rewe.customerbookingservice.config.ReplicaRoutingDataSource;
+import com.rewe.customerbookingservice.metrics.StatementCountingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Permits, replica routing and statement counting all post-process the DataSource; their order
+ * decides whether each pool ends up behind its permits and whether replica reads are counted.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "app.datasource.replica.url=jdbc:tc:postgresql:16-alpine:///customer_bookings"
+})
+class DataSourceChainIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void countingWrapsRoutingOverPermitLimitedPrimaryAndReplicaPools() {
+        assertThat(dataSource).isInstanceOf(StatementCountingDataSource.class);
+        assertThat(((StatementCountingDataSource) dataSource).getTargetDataSource()).isInstanceOf(ReplicaRoutingDataSource.class);
+        ReplicaRoutingDataSource routing = (ReplicaRoutingDataSource) ((StatementCountingDataSource) dataSource).getTargetDataSource();
+
+        assertThat(routing.getTargetDataSource()).isInstanceOf(PermitLimitedDataSource.class);
+        assertThat(((PermitLimitedDataSource) routing.getTargetDataSource()).getTargetDataSource())
+                .isInstanceOf(HikariDataSource.class);
+
+        DataSource replica = routing.getReplicaDataSource().getTargetDataSource();
+        assertThat(replica).isInstanceOf(PermitLimitedDataSource.class);
+        assertThat(((PermitLimitedDataSource) replica).getTargetDataSource())
+                .isInstanceOfSatisfying(HikariDataSource.class, pool -> assertThat(pool.getPoolName()).isEqualTo("replica"));
+        assertThat(routing.getReplicaDataSource().getPrimaryDataSource()).isSameAs(routing.getTargetDataSource());
+    }
+}
@@ -0,0 +1,79 @@
+package com.rewe.customerbookingservice.integration.datasource;
+
+import com.rewe.customerbookingservice.config.ReplicaDataSource;
+import com.rewe.customerbookingservice.config.ReplicaRoutingDataSource;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.data.repositories.OutboxEventRepository;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.services.BookingService;
+import com.rewe.customerbookingservice.services.BrandService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica URL points at the primary's container, so reads succeed and routing is observed
+ * through the replica's connection count.
+ */
+@SpringBootTest(properties = "app.datasource.replica.url=jdbc:tc:postgresql:16-alpine:///customer_bookings")
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void cleanupTestEntities() {
+        bookingRepository.deleteAll();
+        outboxEventRepository.deleteAllInBatch();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() throws SQLException {
+        ReplicaDataSource replica = dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicaDataSource();
+        long replicaConnections = replica.getReplicaConnections();
+
+        BookingDTO saved = bookingService.saveBooking(BookingDTO.builder().title("Replica Booking").build());
+        assertThat(replica.getReplicaConnections()).isEqualTo(replicaConnections);
+
+        assertThat(bookingService.findBookingById(saved.getId()).getTitle()).isEqualTo("Replica Booking");
+        assertThat(replica.getReplicaConnections()).isEqualTo(replicaConnections + 1);
+        assertThat(replica.getFallbacks()).isZero();
+    }
+
+    @Test
+    void brandCacheIsFilledFromPrimary() throws SQLException {
+        ReplicaDataSource replica = dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicaDataSource();
+        BrandDTO saved = brandService.saveBrand(BrandDTO.builder().name("Replica Brand").shortCode("RB").build());
+        long replicaConnections = replica.getReplicaConnections();
+
+        assertThat(brandService.findBrandById(saved.getId())).hasValueSatisfying(
+                brand -> assertThat(brand.getName()).isEqualTo("Replica Brand"));
+        assertThat(brandService.findBrandById(saved.getId())).isPresent();
+
+        assertThat(replica.getReplicaConnections()).isEqualTo(replicaConnections);
+    }
+}
@@ -0,0 +1,194 @@
+package com.rewe.customerbookingservice.integration.idempotency;
+
+import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
+import com.rewe.customerbookingservice.data.entities.IdempotencyKey;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.data.repositories.IdempotencyKeyRepository;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.idempotency.IdempotencyFilter;
+import com.rewe.customerbookingservice.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = CustomerBookingServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyIntegrationTest {
+
+    private static final int CONCURRENT_DUPLICATES = 8;
+
+    @LocalServerPort
+    int randomServerPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @AfterEach
+    void cleanupTestEntities() {
+        idempotencyKeyRepository.deleteAll();
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void testRetriedPostReplaysResponseWithoutSecondInsert() {
+        String key = UUID.randomUUID().toString();
+        CustomerDTO customer = customer("Retrying Customer");
+
+        ResponseEntity<CustomerDTO> first = post("/api/customers", key, customer, CustomerDTO.class);
+        ResponseEntity<CustomerDTO> retry = post("/api/customers", key, customer, CustomerDTO.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.getBody()).isNotNull();
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(customerRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testKeyReusedForDifferentBodyIsRejected() {
+        String key = UUID.randomUUID().toString();
+        post("/api/customers", key, customer("First Customer"), CustomerDTO.class);
+
+        ResponseEntity<ProblemDetail> reused = post("/api/customers", key, customer("Second Customer"), ProblemDetail.class);
+
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(customerRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testKeysAreScopedToTheirEndpoint() {
+        String key = UUID.randomUUID().toString();
+
+        post("/api/customers", key, customer("Scoped Customer"), CustomerDTO.class);
+        ResponseEntity<BrandDTO> brand = post("/api/brands", key, brand("Scoped Brand"), BrandDTO.class);
+
+        assertThat(brand.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(brand.getHeaders().containsKey(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isFalse();
+        assertThat(brandRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedRequestReleasesKey() {
+        String key = UUID.randomUUID().toString();
+        CustomerDTO invalid = customer("Invalid Customer");
+        invalid.setEmail("not an email");
+
+        ResponseEntity<ProblemDetail> rejected = post("/api/customers", key, invalid, ProblemDetail.class);
+        ResponseEntity<CustomerDTO> corrected = post("/api/customers", key, customer("Valid Customer"), CustomerDTO.class);
+
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(corrected.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(corrected.getHeaders().containsKey(IdempotencyFilter.IDEMPOTENT_REPLAYED)).isFalse();
+    }
+
+    @Test
+    void testConcurrentDuplicatesInsertOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        BrandDTO brand = brand("Concurrent Brand");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_DUPLICATES)) {
+            for (int i = 0; i < CONCURRENT_DUPLICATES; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return post("/api/brands", key, brand, String.class);
+                }));
+            }
+            start.countDown();
+        }
+
+        List<String> createdBodies = new ArrayList<>();
+        for (Future<ResponseEntity<String>> response : responses) {
+            HttpStatus status = HttpStatus.valueOf(response.get().getStatusCode().value());
+            assertThat(status).isIn(HttpStatus.CREATED, HttpStatus.CONFLICT);
+            if (status == HttpStatus.CREATED) {
+                createdBodies.add(response.get().getBody());
+            }
+        }
+        assertThat(createdBodies).isNotEmpty().allMatch(body -> body.equals(createdBodies.get(0)));
+        assertThat(brandRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPurgeDeletesExpiredKeys() {
+        Instant past = Instant.now().minus(2, ChronoUnit.DAYS);
+        idempotencyKeyRepository.save(IdempotencyKey.builder()
+                .id("/api/customers expired")
+                .requestHash("0".repeat(64))
+                .responseStatus(201)
+                .createdAt(past)
+                .expiresAt(past.plus(1, ChronoUnit.DAYS))
+                .build());
+        String key = UUID.randomUUID().toString();
+        post("/api/customers", key, customer("Kept Customer"), CustomerDTO.class);
+
+        assertThat(idempotencyStore.purgeExpired()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findAll()).extracting(IdempotencyKey::getId)
+                .containsExactly("/api/customers " + key);
+    }
+
+    private <T> ResponseEntity<T> post(String path, String key, Object body, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        return restTemplate.postForEntity(URI.create("http://localhost:" + randomServerPort + path),
+                new HttpEntity<>(body, headers), responseType);
+    }
+
+    private static CustomerDTO customer(String name) {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setName(name);
+        customer.setActive(true);
+        customer.setAge(30);
+        customer.setEmail("customer@example.com");
+        return customer;
+    }
+
+    private static BrandDTO brand(String name) {
+        return BrandDTO.builder()
+                .name(name)
+                .address("1 Main St")
+                .shortCode("IK" + System.nanoTime())
+                .build();
+    }
+}
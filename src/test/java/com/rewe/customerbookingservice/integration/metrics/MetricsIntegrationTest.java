@@ -0,0 +1,80 @@
+package com.rewe.customerbookingservice.integration.metrics;
+
+import com.rewe.customerbookingservice.CustomerBookingServiceApplication;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@SpringBootTest(classes = CustomerBookingServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.endpoints.web.exposure.include=prometheus",
+                "management.observations.annotations.enabled=true",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+        })
+class MetricsIntegrationTest {
+
+    @LocalServerPort
+    int randomServerPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanupTestEntities() {
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void prometheusEndpointExposesRequestServiceSqlAndPoolMetrics() {
+        Customer customer = new Customer();
+        customer.setName("Metrics Customer");
+        customer = customerRepository.save(customer);
+        restTemplate.getForEntity("http://localhost:" + randomServerPort + "/api/customers/" + customer.getId() + "/bookings",
+                String.class);
+
+        ResponseEntity<String> responseEntity = restTemplate.getForEntity(
+                "http://localhost:" + randomServerPort + "/actuator/prometheus", String.class);
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody())
+                .contains("http_server_requests_seconds_bucket")
+                .contains("http_server_requests_sql_statements_count{method=\"GET\",uri=\"/api/customers/{customerId}/bookings\"}")
+                .contains("app_service_calls_seconds_count{class=\"com.rewe.customerbookingservice.services.impl.BookingServiceImpl\"")
+                .contains("hibernate_entities_loads")
+                .contains("hikaricp_connections_active")
+                .contains("cache_gets_total{cache=\"brandsById\"")
+                .contains("http_server_concurrency_limit{endpoints=\"read\"}")
+                .contains("http_server_concurrency_rejected_total{endpoints=\"write\"}");
+    }
+
+    @Test
+    void sqlStatementsIncludeJdbcTemplateQueries() {
+        // a search without matches runs on JdbcTemplate only
+        restTemplate.getForEntity("http://localhost:" + randomServerPort + "/api/bookings/search?q=nomatch", String.class);
+
+        DistributionSummary statements = meterRegistry.find("http.server.requests.sql.statements")
+                .tag("uri", "/api/bookings/search")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+    }
+}
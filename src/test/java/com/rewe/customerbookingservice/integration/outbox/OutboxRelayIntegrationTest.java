@@ -0,0 +1,152 @@
+package com.rewe.customerbookingservice.integration.outbox;
+
+import com.rewe.customerbookingservice.data.entities.OutboxEvent;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.data.repositories.OutboxEventRepository;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.outbox.InMemoryOutboxSink;
+import com.rewe.customerbookingservice.outbox.OutboxRelay;
+import com.rewe.customerbookingservice.services.BookingService;
+import com.rewe.customerbookingservice.services.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.outbox.batch-size=2")
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxEventRepository.deleteAllInBatch();
+        outboxSink.clear();
+    }
+
+    @AfterEach
+    void cleanupTestEntities() {
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void bookingChangesAreRelayedInOrderAndRemoved() {
+        BookingDTO booking = bookingService.saveBooking(BookingDTO.builder()
+                .title("Outbox Booking")
+                .active(true)
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build());
+        booking.setTitle("Updated Outbox Booking");
+        bookingService.updateBooking(booking.getId(), booking);
+        bookingService.deleteBooking(booking.getId());
+        double relayedBefore = meterRegistry.counter("outbox.events.relayed").count();
+
+        int relayed = outboxRelay.relayPending();
+
+        assertThat(relayed).isEqualTo(3);
+        assertThat(outboxSink.getEvents())
+                .extracting(OutboxEvent::getEventType)
+                .containsExactly("BOOKING_CREATED", "BOOKING_UPDATED", "BOOKING_DELETED");
+        assertThat(outboxSink.getEvents()).allSatisfy(event -> assertThat(event.getAggregateId()).isEqualTo(booking.getId()));
+        assertThat(outboxSink.getEvents().get(0).getPayload())
+                .contains("\"bookingId\":" + booking.getId(), "\"startDate\":\"2024-03-01\"");
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.counter("outbox.events.relayed").count()).isEqualTo(relayedBefore + 3);
+    }
+
+    @Test
+    void customerDeleteWritesDeleteEventPerBooking() {
+        CustomerDTO customer = customerService.saveCustomer(CustomerDTO.builder()
+                .name("Outbox Customer")
+                .age(30)
+                .email("outbox.customer@example.com")
+                .build());
+        List<BookingDTO> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookings.add(BookingDTO.builder()
+                    .title("Outbox Booking " + i)
+                    .customer(CustomerDTO.builder().id(customer.getId()).build())
+                    .build());
+        }
+        List<Long> bookingIds = bookingService.saveBookings(bookings).stream().map(BookingDTO::getId).toList();
+        outboxEventRepository.deleteAllInBatch();
+
+        assertThat(customerService.deleteCustomer(customer.getId())).isTrue();
+
+        assertThat(outboxRelay.relayPending()).isEqualTo(3);
+        assertThat(outboxSink.getEvents())
+                .allSatisfy(event -> assertThat(event.getEventType()).isEqualTo("BOOKING_DELETED"))
+                .extracting(OutboxEvent::getAggregateId)
+                .containsExactlyInAnyOrderElementsOf(bookingIds);
+    }
+
+    @Test
+    void failedBookingChangeWritesNoEvent() {
+        assertThat(bookingService.deleteBooking(Long.MAX_VALUE)).isFalse();
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relaySkipsEventsClaimedByAnotherRelay() {
+        List<BookingDTO> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookings.add(BookingDTO.builder().title("Outbox Booking " + i).build());
+        }
+        bookingService.saveBookings(bookings);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int relayedWhileLocked = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxEventRepository.claimBatch(Limit.of(2));
+            assertThat(claimed).hasSize(2);
+            // another thread, so the relay runs in its own transaction and connection
+            return CompletableFuture.supplyAsync(outboxRelay::relayPending).join();
+        });
+
+        assertThat(relayedWhileLocked).isEqualTo(1);
+        assertThat(outboxRelay.relayPending()).isEqualTo(2);
+        assertThat(outboxSink.getEvents()).hasSize(3);
+    }
+}
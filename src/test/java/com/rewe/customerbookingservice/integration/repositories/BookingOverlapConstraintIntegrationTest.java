@@ -0,0 +1,74 @@
+package com.rewe.customerbookingservice.integration.repositories;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@code ex_booking_brand_period} from the Liquibase changelog directly, bypassing the
+ * service level check.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class BookingOverlapConstraintIntegrationTest {
+
+    private static final long BRAND_ID = 9001;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into brand (id, name) values (?, 'Constraint Brand')", BRAND_ID);
+        insertBooking(9001, true, "2024-03-01", "2024-03-10");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from booking where brand_id = ?", BRAND_ID);
+        jdbcTemplate.update("delete from brand where id = ?", BRAND_ID);
+    }
+
+    @Test
+    void overlappingActiveBookingIsRejected() {
+        assertThatThrownBy(() -> insertBooking(9002, true, "2024-03-10", "2024-03-20"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .rootCause()
+                .isInstanceOf(SQLException.class)
+                .satisfies(cause -> assertThat(((SQLException) cause).getSQLState()).isEqualTo("23P01"));
+    }
+
+    @Test
+    void adjacentAndInactiveBookingsAreAccepted() {
+        insertBooking(9002, true, "2024-03-11", "2024-03-20");
+        insertBooking(9003, false, "2024-03-05", "2024-03-15");
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from booking where brand_id = ?", Long.class, BRAND_ID))
+                .isEqualTo(3);
+    }
+
+    private void insertBooking(long id, boolean active, String startDate, String endDate) {
+        jdbcTemplate.update("insert into booking (id, title, active, start_date, end_date, brand_id) "
+                + "values (?, 'Constraint Booking', ?, cast(? as date), cast(? as date), ?)", id, active, startDate, endDate, BRAND_ID);
+    }
+}
@@ -0,0 +1,173 @@
+package com.rewe.customerbookingservice.integration.repositories;
+
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.support.ExecutedStatement;
+import com.rewe.customerbookingservice.support.SqlStatementCountingConfiguration;
+import com.rewe.customerbookingservice.support.SqlStatements;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Liquibase changelog against Postgres, seeds a large booking table and checks that the
+ * SQL the repository methods generate is planned with index access instead of sequential scans.
+ */
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(SqlStatementCountingConfiguration.class)
+@SpringBootTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class BookingQueryPlanIntegrationTest {
+
+    private static final int BRANDS = 200;
+    private static final int CUSTOMERS = 20_000;
+    private static final int BOOKINGS = 300_000;
+
+    /**
+     * Each brand's bookings follow each other in two day periods from here on, for about eight years.
+     */
+    private static final LocalDate FIRST_START_DATE = LocalDate.of(2000, 1, 1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SqlStatements sqlStatements;
+
+    /**
+     * Seeded bookings are active and do not overlap within a brand, so they pass
+     * {@code ex_booking_brand_period} and match the queries that filter on {@code active}.
+     */
+    @BeforeAll
+    void seedLargeBookingTable() {
+        jdbcTemplate.update("insert into brand (id, name, address, short_code) "
+                + "select 1000 + g, 'Brand ' || g, g || ' Main St', 'B' || g from generate_series(1, ?) g", BRANDS);
+        jdbcTemplate.update("insert into customer (id, name, email, active, age) "
+                + "select 1000 + g, 'Customer ' || g, 'customer' || g || '@example.com', true, 30 "
+                + "from generate_series(1, ?) g", CUSTOMERS);
+        jdbcTemplate.update("insert into booking (id, title, description, active, age, start_date, end_date, brand_id, customer_id) "
+                + "select 1000 + g, 'Booking ' || g, 'Seeded booking', true, 0, "
+                + "cast(? as date) + 2 * (g / ?), cast(? as date) + 2 * (g / ?) + 1, "
+                + "1001 + (g % ?), 1001 + (g % ?) from generate_series(1, ?) g",
+                FIRST_START_DATE, BRANDS, FIRST_START_DATE, BRANDS, BRANDS, CUSTOMERS, BOOKINGS);
+        jdbcTemplate.execute("analyze brand");
+        jdbcTemplate.execute("analyze customer");
+        jdbcTemplate.execute("analyze booking");
+    }
+
+    @Test
+    void findByBrandIdUsesIndex() {
+        assertNoSequentialScanOnBooking(repositoryQuery(() -> bookingRepository.findByBrandId(1001L)));
+    }
+
+    @Test
+    void findByCustomerIdUsesIndex() {
+        assertNoSequentialScanOnBooking(repositoryQuery(() -> bookingRepository.findByCustomerId(1001L)));
+    }
+
+    @Test
+    void bookingPageByBrandIdUsesIndex() {
+        assertNoSequentialScanOnBooking(repositoryQuery(
+                () -> bookingRepository.findByBrandIdAndIdGreaterThanOrderByIdAsc(1001L, 5000L, Limit.of(21))));
+    }
+
+    @Test
+    void bookingPageByCustomerIdUsesIndex() {
+        assertNoSequentialScanOnBooking(repositoryQuery(
+                () -> bookingRepository.findByCustomerIdAndIdGreaterThanOrderByIdAsc(1001L, 5000L, Limit.of(21))));
+    }
+
+    @Test
+    void brandOverlapCheckUsesIndex() {
+        LocalDate startDate = FIRST_START_DATE.plusDays(10);
+        assertThat(bookingRepository.existsActiveOverlap(1001L, startDate, startDate.plusDays(30), 0L)).isTrue();
+
+        assertNoSequentialScanOnBooking(repositoryQuery(
+                () -> bookingRepository.existsActiveOverlap(1001L, startDate, startDate.plusDays(30), 0L)));
+    }
+
+    /**
+     * Every brand has a booking in the window, so it matches a few hundred of the seeded rows.
+     */
+    @Test
+    void dateWindowUsesRangeIndex() {
+        LocalDate from = FIRST_START_DATE.plusDays(2);
+        LocalDate to = FIRST_START_DATE.plusDays(3);
+        assertThat(bookingRepository.findActiveInRange(from, to, null, null, 0L, 21)).hasSize(21);
+
+        ExecutedStatement statement = repositoryQuery(
+                () -> bookingRepository.findActiveInRange(from, to, null, null, 0L, 21));
+
+        assertThat(explain(statement))
+                .as("plan for %s", statement)
+                .anyMatch(line -> line.contains("idx_booking_start_date_end_date"))
+                .noneMatch(line -> line.contains("Seq Scan on booking"));
+    }
+
+    @Test
+    void bookingDatesAreDateColumns() {
+        List<String> types = jdbcTemplate.queryForList("select data_type from information_schema.columns "
+                + "where table_name = 'booking' and column_name in ('start_date', 'end_date')", String.class);
+
+        assertThat(types).containsExactly("date", "date");
+    }
+
+    /**
+     * The statement Postgres runs for the {@code RESTRICT} foreign keys when a customer is deleted.
+     */
+    @Test
+    void restrictCheckOnCustomerDeleteUsesIndex() {
+        assertNoSequentialScanOnBooking(new ExecutedStatement(
+                "select 1 from booking b where b.customer_id = ? for key share", List.of(1001L)));
+    }
+
+    @Test
+    void restrictCheckOnBrandDeleteUsesIndex() {
+        assertNoSequentialScanOnBooking(new ExecutedStatement(
+                "select 1 from booking b where b.brand_id = ? for key share", List.of(1001L)));
+    }
+
+    /**
+     * The first statement of the call, which is the repository's query; later ones load associations.
+     */
+    private ExecutedStatement repositoryQuery(Runnable call) {
+        List<ExecutedStatement> statements = sqlStatements.capture(call);
+
+        assertThat(statements).isNotEmpty();
+        assertThat(statements.get(0).sql()).containsIgnoringCase("from booking");
+        return statements.get(0);
+    }
+
+    private List<String> explain(ExecutedStatement statement) {
+        return jdbcTemplate.queryForList("explain " + statement.sql(), String.class, statement.parameterArray());
+    }
+
+    private void assertNoSequentialScanOnBooking(ExecutedStatement statement) {
+        assertThat(explain(statement))
+                .as("plan for %s", statement)
+                .noneMatch(line -> line.contains("Seq Scan on booking"));
+    }
+}
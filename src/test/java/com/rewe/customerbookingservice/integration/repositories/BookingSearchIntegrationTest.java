@@ -0,0 +1,125 @@
+package com.rewe.customerbookingservice.integration.repositories;
+
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Liquibase changelog against Postgres, seeds a few million bookings and checks that
+ * search is answered from the GIN index on {@code search_vector}, ranks title matches first and
+ * stays fast on a table of that size.
+ */
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class BookingSearchIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSearchIntegrationTest.class);
+
+    private static final int BRANDS = 200;
+    private static final int CUSTOMERS = 20_000;
+    private static final int BOOKINGS = 2_000_000;
+    /**
+     * Every n-th seeded booking has "rooftop" in its title, every other n-th in its description.
+     */
+    private static final int RARE_WORD_EVERY = 10_000;
+    private static final int TIMED_RUNS = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeAll
+    void seedLargeBookingTable() {
+        jdbcTemplate.update("insert into brand (id, name, address, short_code) "
+                + "select 1000 + g, 'Brand ' || g, g || ' Main St', 'B' || g from generate_series(1, ?) g", BRANDS);
+        jdbcTemplate.update("insert into customer (id, name, email, active, age) "
+                + "select 1000 + g, 'Customer ' || g, 'customer' || g || '@example.com', true, 30 "
+                + "from generate_series(1, ?) g", CUSTOMERS);
+        jdbcTemplate.update("insert into booking (id, title, description, active, age, start_date, end_date, brand_id, customer_id) "
+                + "select 1000 + g, "
+                + "(array['Garden', 'Kitchen', 'Office', 'Studio', 'Terrace'])[1 + g % 5] || ' booking ' || g "
+                + "|| case when g % ? = 0 then ' rooftop' else '' end, "
+                + "'Seeded ' || (array['morning', 'evening', 'weekend'])[1 + g % 3] || ' slot' "
+                + "|| case when g % ? = ? / 2 then ' near the rooftop' else '' end, "
+                + "false, 0, date '2024-01-01' + (g % 365), date '2024-01-08' + (g % 365), "
+                + "1001 + (g % ?), 1001 + (g % ?) from generate_series(1, ?) g",
+                RARE_WORD_EVERY, RARE_WORD_EVERY, RARE_WORD_EVERY, BRANDS, CUSTOMERS, BOOKINGS);
+        jdbcTemplate.execute("analyze brand");
+        jdbcTemplate.execute("analyze customer");
+        jdbcTemplate.execute("analyze booking");
+    }
+
+    @Test
+    void searchUsesGinIndex() {
+        List<String> plan = jdbcTemplate.queryForList("explain select b.id from booking b, "
+                + "websearch_to_tsquery('simple', 'rooftop') q where b.search_vector @@ q "
+                + "order by ts_rank(b.search_vector, q) desc, b.id limit 21 offset 0", String.class);
+
+        assertThat(plan)
+                .anyMatch(line -> line.contains("idx_booking_search_vector"))
+                .noneMatch(line -> line.contains("Seq Scan on booking"));
+    }
+
+    @Test
+    void titleMatchesRankBeforeDescriptionMatches() {
+        List<Long> ids = bookingRepository.searchIds("rooftop", null, null, 0, BOOKINGS / RARE_WORD_EVERY);
+
+        // ids of title matches end in ...000 after the 1000 offset, description matches in ...000 + n / 2
+        assertThat(ids).hasSize(BOOKINGS / RARE_WORD_EVERY);
+        assertThat(ids.subList(0, ids.size() / 2)).allMatch(id -> (id - 1000) % RARE_WORD_EVERY == 0);
+        assertThat(ids.subList(ids.size() / 2, ids.size())).allMatch(id -> (id - 1000) % RARE_WORD_EVERY != 0);
+    }
+
+    @Test
+    void searchFiltersByBrandAndCustomer() {
+        // the rare word lands on brand 1001 and on customers 1001, 6001, 11001 and 16001
+        List<Long> ids = bookingRepository.searchIds("rooftop", 1001L, 6001L, 0, 100);
+
+        assertThat(ids).isNotEmpty().allMatch(id -> (id - 1000) % CUSTOMERS == 5000);
+        assertThat(bookingRepository.searchIds("rooftop", 1002L, null, 0, 100)).isEmpty();
+    }
+
+    @Test
+    void searchLatencyOnSeededTable() {
+        bookingRepository.searchIds("rooftop", null, null, 0, 21);
+        long[] nanos = new long[TIMED_RUNS];
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            bookingRepository.searchIds(i % 2 == 0 ? "rooftop" : "rooftop -near", null, null, 0, 21);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        Duration median = Duration.ofNanos(nanos[TIMED_RUNS / 2]);
+        Duration p95 = Duration.ofNanos(nanos[TIMED_RUNS * 95 / 100]);
+        log.info("search over {} bookings: median {} ms, p95 {} ms", BOOKINGS, median.toMillis(), p95.toMillis());
+
+        // a sequential scan over the seeded table takes seconds
+        assertThat(median).isLessThan(Duration.ofMillis(200));
+    }
+}
@@ -0,0 +1,93 @@
+package com.rewe.customerbookingservice.integration.repositories;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.second-level-cache.enabled=true")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanupTestEntities() {
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void findByIdIsServedFromSecondLevelCache() {
+        Brand brand = new Brand();
+        brand.setName("Cached Brand");
+        Long brandId = brandRepository.save(brand).getId();
+        Customer customer = new Customer();
+        customer.setName("Cached Customer");
+        Long customerId = customerRepository.save(customer).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        brandRepository.findById(brandId);
+        customerRepository.findById(customerId);
+        statistics.clear();
+        assertThat(brandRepository.findById(brandId)).isPresent();
+        assertThat(customerRepository.findById(customerId)).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bookingsByBrandQueryIsServedFromQueryCacheUntilBookingsChange() {
+        Brand brand = new Brand();
+        brand.setName("Brand");
+        brand = brandRepository.save(brand);
+        saveBooking(brand, "First");
+
+        assertThat(bookingRepository.findByBrandId(brand.getId())).hasSize(1);
+        statistics.clear();
+        assertThat(bookingRepository.findByBrandId(brand.getId())).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        saveBooking(brand, "Second");
+        assertThat(bookingRepository.findByBrandId(brand.getId())).hasSize(2);
+    }
+
+    private void saveBooking(Brand brand, String title) {
+        Booking booking = new Booking();
+        booking.setTitle(title);
+        booking.setBrand(brand);
+        bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,145 @@
+package com.rewe.customerbookingservice.integration.rollup;
+
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
+import com.rewe.customerbookingservice.data.repositories.BrandRepository;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
+import com.rewe.customerbookingservice.rollup.OccupancyRebuildJob;
+import com.rewe.customerbookingservice.services.BookingService;
+import com.rewe.customerbookingservice.services.BrandService;
+import com.rewe.customerbookingservice.services.CustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.rollup.rebuild-chunk-size=1")
+class OccupancyRollupIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 7);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OccupancyRebuildJob occupancyRebuildJob;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private BrandDailyOccupancyRepository occupancyRepository;
+
+    private Brand brand;
+    private Brand otherBrand;
+    private Customer customer;
+
+    @BeforeEach
+    void setupTestEntities() {
+        brand = brandRepository.save(Brand.builder().name("Rollup Brand").shortCode("RB" + System.nanoTime()).build());
+        otherBrand = brandRepository.save(Brand.builder().name("Other Rollup Brand").shortCode("ORB" + System.nanoTime()).build());
+        customer = customerRepository.save(Customer.builder().name("Rollup Customer").build());
+    }
+
+    @AfterEach
+    void cleanupTestEntities() {
+        bookingRepository.deleteAll();
+        occupancyRepository.deleteAllInBatch();
+        customerRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void bookingChangesAreAppliedAsDeltas() {
+        BookingDTO first = bookingService.saveBooking(booking(brand, 1, 3, true));
+        BookingDTO second = bookingService.saveBooking(booking(brand, 5, 6, false));
+        assertThat(occupancy(brand)).containsExactly(1, 1, 1, 0, 0, 0, 0);
+
+        first.setStartDate(FROM.plusDays(1));
+        first.setEndDate(FROM.plusDays(3));
+        bookingService.updateBooking(first.getId(), first);
+        BookingDTO patched = bookingService.patchBooking(second.getId(), current -> {
+            current.setActive(true);
+            return current;
+        }, null);
+        assertThat(occupancy(brand)).containsExactly(0, 1, 1, 1, 1, 1, 0);
+
+        patched.setBrand(BrandDTO.builder().id(otherBrand.getId()).build());
+        bookingService.updateBooking(patched.getId(), patched, patched.getVersion());
+        assertThat(occupancy(brand)).containsExactly(0, 1, 1, 1, 0, 0, 0);
+        assertThat(occupancy(otherBrand)).containsExactly(0, 0, 0, 0, 1, 1, 0);
+
+        bookingService.deleteBooking(first.getId());
+        assertThat(occupancy(brand)).containsExactly(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void deletingACustomerRemovesTheirBookingsFromTheRollup() {
+        bookingService.saveBookings(List.of(booking(brand, 1, 2, true), booking(otherBrand, 2, 3, true)));
+        assertThat(occupancy(otherBrand)).containsExactly(0, 1, 1, 0, 0, 0, 0);
+
+        customerService.deleteCustomer(customer.getId());
+
+        assertThat(occupancy(brand)).containsOnly(0);
+        assertThat(occupancy(otherBrand)).containsOnly(0);
+    }
+
+    @Test
+    void rebuildRecomputesTheIncrementalCounts() {
+        bookingService.saveBooking(booking(brand, 1, 3, true));
+        bookingService.saveBooking(booking(brand, 4, 4, false));
+        bookingService.saveBooking(booking(otherBrand, 2, 6, true));
+        List<Integer> incremental = occupancy(brand);
+        List<Integer> otherIncremental = occupancy(otherBrand);
+        occupancyRepository.deleteAllInBatch();
+
+        int chunks = occupancyRebuildJob.rebuild();
+
+        assertThat(chunks).isGreaterThanOrEqualTo(2);
+        assertThat(occupancy(brand)).isEqualTo(incremental).containsExactly(1, 1, 1, 0, 0, 0, 0);
+        assertThat(occupancy(otherBrand)).isEqualTo(otherIncremental);
+    }
+
+    private BookingDTO booking(Brand bookingBrand, int firstDay, int lastDay, boolean active) {
+        return BookingDTO.builder()
+                .title("Rollup Booking")
+                .active(active)
+                .startDate(FROM.plusDays(firstDay - 1))
+                .endDate(FROM.plusDays(lastDay - 1))
+                .brand(BrandDTO.builder().id(bookingBrand.getId()).build())
+                .customer(CustomerDTO.builder().id(customer.getId()).build())
+                .build();
+    }
+
+    private List<Integer> occupancy(Brand occupiedBrand) {
+        return brandService.findOccupancy(occupiedBrand.getId(), FROM, TO)
+                .stream()
+                .map(DailyOccupancyDTO::activeBookings)
+                .toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.rewe.customerbookingservice.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Compares the module against Jackson's bean serializers on an {@code ObjectMapper} configured by
+ * Spring Boot.
+ */
+@JsonTest
+class BookingJsonModuleTest {
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    private ObjectMapper standard;
+    private ObjectMapper optimized;
+
+    @BeforeEach
+    void setUp() {
+        standard = objectMapperBuilder.build();
+        optimized = objectMapperBuilder.build().registerModule(new BookingJsonModule());
+    }
+
+    @Test
+    void usesModuleSerializers() throws Exception {
+        assertInstanceOf(BookingDTOSerializer.class,
+                optimized.getSerializerProviderInstance().findValueSerializer(BookingDTO.class));
+    }
+
+    @Test
+    void booking_shouldMatchBeanSerializer() throws Exception {
+        assertSameJson(booking(1L));
+    }
+
+    @Test
+    void bookingWithNulls_shouldMatchBeanSerializer() throws Exception {
+        assertSameJson(new BookingDTO());
+        assertSameJson(BookingDTO.builder()
+                .brand(new BrandDTO())
+                .customer(new CustomerDTO())
+                .build());
+    }
+
+    @Test
+    void dates_shouldMatchBeanSerializer() throws Exception {
+        BookingDTO booking = booking(2L);
+        for (LocalDateTime dateTime : List.of(
+                LocalDateTime.of(2024, 2, 29, 0, 0),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(2024, 6, 1, 9, 5, 7, 500_000_000),
+                LocalDateTime.of(2024, 6, 1, 9, 5, 7, 123_456_000),
+                LocalDateTime.of(2024, 6, 1, 9, 5, 7, 1),
+                LocalDateTime.of(999, 1, 1, 0, 0),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(12_345, 1, 1, 0, 0),
+                LocalDateTime.of(-1, 1, 1, 0, 0))) {
+            booking.setCreated(dateTime);
+            booking.setStartDate(dateTime.toLocalDate());
+            booking.getCustomer().setUpdated(dateTime);
+            assertSameJson(booking);
+        }
+    }
+
+    @Test
+    void escapedStrings_shouldMatchBeanSerializer() throws Exception {
+        BookingDTO booking = booking(3L);
+        booking.setTitle("Quote \" backslash \\ tab \t newline \n");
+        booking.setDescription("\u00dcmlaut \u20ac \u0001 \uD83D\uDE00 </script>");
+        booking.getBrand().setName("Brand \"B\"");
+        assertSameJson(booking);
+    }
+
+    @Test
+    void bookingPage_shouldMatchBeanSerializer() throws Exception {
+        assertSameJson(new BookingPageDTO(List.of(booking(1L), booking(2L)), "cursor"));
+        assertSameJson(List.of(booking(1L), booking(2L), booking(3L)));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertArrayEquals(standard.writeValueAsBytes(value), optimized.writeValueAsBytes(value),
+                () -> {
+                    try {
+                        return optimized.writeValueAsString(value);
+                    } catch (Exception e) {
+                        return e.getMessage();
+                    }
+                });
+    }
+
+    private BookingDTO booking(Long id) {
+        BrandDTO brand = BrandDTO.builder()
+                .id(2L)
+                .version(3L)
+                .name("Brand A")
+                .address("123 Main St")
+                .shortCode("BA")
+                .build();
+        CustomerDTO customer = CustomerDTO.builder()
+                .id(4L)
+                .version(1L)
+                .name("Jane Doe")
+                .age(30)
+                .email("jane.doe@example.com")
+                .active(true)
+                .created(LocalDateTime.of(2023, 10, 1, 1, 0))
+                .updated(LocalDateTime.of(2023, 10, 1, 1, 0, 12, 345_000))
+                .build();
+        return BookingDTO.builder()
+                .id(id)
+                .version(0L)
+                .title("Booking " + id)
+                .description("Seasonal promotion placement")
+                .active(true)
+                .created(LocalDateTime.of(2023, 10, 2, 1, 0))
+                .updated(LocalDateTime.of(2023, 10, 2, 1, 0, 30))
+                .startDate(LocalDate.of(2024, 1, 1))
+                .endDate(LocalDate.of(2024, 1, 15))
+                .brand(brand)
+                .customer(customer)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.rewe.customerbookingservice.mappers.impl;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class DirectEntityMapperTest {
+
+    private final DirectEntityMapper entityMapper = new DirectEntityMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STANDARD);
+
+        Brand brand = new Brand();
+        brand.setId(2L);
+        brand.setName("Brand A");
+        brand.setAddress("123 Main St, City");
+        brand.setShortCode("BA");
+        brand.setVersion(2);
+
+        Customer customer = new Customer();
+        customer.setId(3L);
+        customer.setName("John Doe");
+        customer.setEmail("john.doe@example.com");
+        customer.setAge(30);
+        customer.setActive(true);
+        customer.setVersion(5);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setTitle("Booking A");
+        booking.setDescription("A simple booking for Brand A");
+        booking.setActive(true);
+        booking.setStartDate(LocalDate.of(2023, 10, 5));
+        booking.setEndDate(LocalDate.of(2023, 10, 10));
+        booking.setVersion(7);
+        booking.setBrand(brand);
+        booking.setCustomer(customer);
+    }
+
+    @Test
+    void toDto_shouldMatchModelMapper_forBookingWithNestedBrandAndCustomer() {
+        BookingDTO expected = modelMapper.map(booking, BookingDTO.class);
+
+        BookingDTO result = entityMapper.toDto(booking);
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void toEntity_shouldMatchModelMapper_forBookingWithNestedBrandAndCustomer() {
+        BookingDTO bookingDTO = entityMapper.toDto(booking);
+
+        Booking expected = modelMapper.map(bookingDTO, Booking.class);
+        Booking result = entityMapper.toEntity(bookingDTO);
+
+        assertEquals(expected.getTitle(), result.getTitle());
+        assertEquals(expected.getStartDate(), result.getStartDate());
+        assertEquals(expected.getBrand().getShortCode(), result.getBrand().getShortCode());
+        assertEquals(expected.getCustomer().getEmail(), result.getCustomer().getEmail());
+    }
+
+    @Test
+    void toEntity_shouldLeaveVersionToHibernate() {
+        BookingDTO bookingDTO = entityMapper.toDto(booking);
+
+        Booking result = entityMapper.toEntity(bookingDTO);
+
+        assertEquals(7L, bookingDTO.getVersion());
+        assertEquals(0L, result.getVersion());
+        assertEquals(0L, result.getBrand().getVersion());
+    }
+
+    @Test
+    void toDto_shouldConvertInstantToLocalDateTime() {
+        Instant created = Instant.parse("2023-10-02T01:00:00Z");
+        booking.setCreated(created);
+        booking.getCustomer().setUpdated(created);
+
+        BookingDTO result = entityMapper.toDto(booking);
+
+        LocalDateTime expected = LocalDateTime.ofInstant(created, ZoneId.systemDefault());
+        assertEquals(expected, result.getCreated());
+        assertNull(result.getUpdated());
+        assertEquals(expected, result.getCustomer().getUpdated());
+        assertEquals(created, entityMapper.toEntity(result).getCreated());
+    }
+
+    @Test
+    void toDto_shouldReturnNull_whenSourceIsNull() {
+        assertNull(entityMapper.toDto((Booking) null));
+        assertNull(entityMapper.toDto((Customer) null));
+        assertNull(entityMapper.toDto((Brand) null));
+        assertNull(entityMapper.toEntity((BookingDTO) null));
+        assertNull(entityMapper.toEntity((CustomerDTO) null));
+        assertNull(entityMapper.toEntity((BrandDTO) null));
+    }
+
+    @Test
+    void toDtoWithBrand_shouldUseGivenBrand_withoutReadingTheAssociation() {
+        Brand brandProxy = mock(Brand.class);
+        booking.setBrand(brandProxy);
+        BrandDTO cachedBrand = BrandDTO.builder().id(2L).name("Cached Brand").build();
+
+        BookingDTO result = entityMapper.toDto(booking, cachedBrand);
+
+        assertSame(cachedBrand, result.getBrand());
+        assertEquals(booking.getTitle(), result.getTitle());
+        assertEquals(3L, result.getCustomer().getId());
+        verifyNoInteractions(brandProxy);
+    }
+}
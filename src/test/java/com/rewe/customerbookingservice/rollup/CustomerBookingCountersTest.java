@@ -0,0 +1,69 @@
+package com.rewe.customerbookingservice.rollup;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingCountsDTO;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.mockito.Mockito.*;
+
+class CustomerBookingCountersTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final Cache cache = mock(Cache.class);
+    private final CustomerBookingCounters counters = new CustomerBookingCounters(customerRepository, entityManagerFactory);
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+    }
+
+    @Test
+    void bookingsCreated_shouldCountPerCustomerAndEvictThem() {
+        counters.bookingsCreated(List.of(booking(1L, true), booking(1L, false), booking(2L, true), booking(null, true)));
+
+        verify(customerRepository).addBookingCounts(new TreeMap<>(Map.of(
+                1L, new BookingCountsDTO(2, 1), 2L, new BookingCountsDTO(1, 1))));
+        verify(cache).evict(Customer.class, 1L);
+        verify(cache).evict(Customer.class, 2L);
+    }
+
+    @Test
+    void bookingChanged_shouldCountOnlyActiveChanges() {
+        counters.bookingChanged(new BookingPeriodDTO(1L, null, 1L, true, null, null, 0L), booking(1L, false));
+
+        verify(customerRepository).addBookingCounts(new TreeMap<>(Map.of(1L, new BookingCountsDTO(0, -1))));
+    }
+
+    @Test
+    void bookingChanged_shouldNotWrite_whenActiveIsUnchanged() {
+        counters.bookingChanged(new BookingPeriodDTO(1L, null, 1L, true, null, null, 0L), booking(1L, true));
+
+        verifyNoInteractions(customerRepository, cache);
+    }
+
+    @Test
+    void bookingsDeleted_shouldDecrementCounters() {
+        counters.bookingsDeleted(List.of(new BookingPeriodDTO(1L, null, 1L, true, null, null, 0L),
+                new BookingPeriodDTO(1L, null, 1L, false, null, null, 0L)));
+
+        verify(customerRepository).addBookingCounts(new TreeMap<>(Map.of(1L, new BookingCountsDTO(-2, -1))));
+    }
+
+    private static Booking booking(Long customerId, boolean active) {
+        Booking booking = new Booking();
+        booking.setActive(active);
+        booking.setCustomer(customerId == null ? null : Customer.builder().id(customerId).build());
+        return booking;
+    }
+}
@@ -0,0 +1,80 @@
+package com.rewe.customerbookingservice.rollup;
+
+import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.entities.BrandDailyOccupancy;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.mockito.Mockito.*;
+
+class OccupancyRollupTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    private final BrandDailyOccupancyRepository occupancyRepository = mock(BrandDailyOccupancyRepository.class);
+    private final OccupancyRollup occupancyRollup = new OccupancyRollup(occupancyRepository);
+
+    @Test
+    void bookingsCreated_shouldAddOnePerDay() {
+        occupancyRollup.bookingsCreated(List.of(booking(2L, true, 0, 1), booking(3L, true, 1, 1)));
+
+        verify(occupancyRepository).applyDeltas(deltas(Map.of(
+                key(2L, 0), 1, key(2L, 1), 1, key(3L, 1), 1)));
+    }
+
+    @Test
+    void bookingChanged_shouldWriteOnlyTheDaysThatChanged() {
+        BookingPeriodDTO before = new BookingPeriodDTO(1L, 2L, null, true, MARCH_1, MARCH_1.plusDays(2), 0L);
+
+        occupancyRollup.bookingChanged(before, booking(2L, true, 1, 3));
+
+        verify(occupancyRepository).applyDeltas(deltas(Map.of(key(2L, 0), -1, key(2L, 3), 1)));
+    }
+
+    @Test
+    void bookingChanged_shouldNotWrite_whenPeriodIsUnchanged() {
+        BookingPeriodDTO before = new BookingPeriodDTO(1L, 2L, null, true, MARCH_1, MARCH_1.plusDays(2), 0L);
+
+        occupancyRollup.bookingChanged(before, booking(2L, true, 0, 2));
+
+        verifyNoInteractions(occupancyRepository);
+    }
+
+    @Test
+    void bookingsCreated_shouldIgnoreInactiveBookingsAndBookingsWithoutBrand() {
+        occupancyRollup.bookingsCreated(List.of(booking(2L, false, 0, 2), booking(null, true, 0, 2)));
+
+        verifyNoInteractions(occupancyRepository);
+    }
+
+    @Test
+    void bookingsDeleted_shouldRemoveOnePerDay() {
+        occupancyRollup.bookingsDeleted(List.of(new BookingPeriodDTO(1L, 2L, null, true, MARCH_1, MARCH_1, 0L)));
+
+        verify(occupancyRepository).applyDeltas(deltas(Map.of(key(2L, 0), -1)));
+    }
+
+    private static Booking booking(Long brandId, boolean active, int firstDay, int lastDay) {
+        Booking booking = new Booking();
+        booking.setActive(active);
+        booking.setBrand(brandId == null ? null : Brand.builder().id(brandId).build());
+        booking.setStartDate(MARCH_1.plusDays(firstDay));
+        booking.setEndDate(MARCH_1.plusDays(lastDay));
+        return booking;
+    }
+
+    private static BrandDailyOccupancy.Key key(Long brandId, int day) {
+        return new BrandDailyOccupancy.Key(brandId, MARCH_1.plusDays(day));
+    }
+
+    private static TreeMap<BrandDailyOccupancy.Key, Integer> deltas(Map<BrandDailyOccupancy.Key, Integer> deltas) {
+        return new TreeMap<>(deltas);
+    }
+}
@@ -1,16 +1,35 @@
 package com.rewe.customerbookingservice.services.impl;
 
+import com.rewe.customerbookingservice.config.PaginationProperties;
+import com.rewe.customerbookingservice.config.RollupProperties;
 import com.rewe.customerbookingservice.data.entities.Booking;
+import com.rewe.customerbookingservice.data.entities.Brand;
 import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
+import com.rewe.customerbookingservice.dtos.BookingPageDTO;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
+import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.exception.BookingOverlapException;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import com.rewe.customerbookingservice.mappers.impl.DirectEntityMapper;
+import com.rewe.customerbookingservice.outbox.BookingOutbox;
+import com.rewe.customerbookingservice.rollup.CustomerBookingCounters;
+import com.rewe.customerbookingservice.rollup.OccupancyRollup;
+import com.rewe.customerbookingservice.services.BrandService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,8 +37,15 @@ import static org.mockito.Mockito.*;
 class BookingServiceImplTest {
 
     private final BookingRepository bookingRepository = mock(BookingRepository.class);
-    private final ModelMapper modelMapper = new ModelMapper();
-    private final BookingServiceImpl bookingService = new BookingServiceImpl(bookingRepository, modelMapper);
+    private final EntityMapper entityMapper = new DirectEntityMapper();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final BrandService brandService = mock(BrandService.class);
+    private final BookingOutbox bookingOutbox = mock(BookingOutbox.class);
+    private final OccupancyRollup occupancyRollup = mock(OccupancyRollup.class);
+    private final CustomerBookingCounters customerBookingCounters = mock(CustomerBookingCounters.class);
+    private final BookingServiceImpl bookingService = new BookingServiceImpl(bookingRepository, entityMapper,
+            new PaginationProperties(2, 5), entityManager, brandService, bookingOutbox, occupancyRollup,
+            customerBookingCounters, new RollupProperties("-", 4, 100, 366));
 
     private Booking booking;
     private BookingDTO bookingDTO;
@@ -30,7 +56,7 @@ class BookingServiceImplTest {
         booking = new Booking();
         booking.setId(1L);
         booking.setTitle("Booking A");
-        bookingDTO = modelMapper.map(booking, BookingDTO.class);
+        bookingDTO = entityMapper.toDto(booking);
     }
 
     @Test
@@ -42,11 +68,131 @@ class BookingServiceImplTest {
         assertNotNull(result);
         assertEquals(bookingDTO.getId(), result.getId());
         assertEquals(bookingDTO.getTitle(), result.getTitle());
+        verify(bookingOutbox, times(1)).bookingCreated(booking);
+        verify(occupancyRollup, times(1)).bookingsCreated(List.of(booking));
+        verify(customerBookingCounters, times(1)).bookingsCreated(List.of(booking));
+    }
+
+    @Test
+    void saveBooking_shouldThrowBookingOverlapException_whenActiveBookingOverlaps() {
+        BookingDTO overlapping = BookingDTO.builder()
+                .title("Overlapping")
+                .active(true)
+                .brand(BrandDTO.builder().id(2L).build())
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build();
+        when(bookingRepository.existsActiveOverlap(2L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), 0L))
+                .thenReturn(true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.saveBooking(overlapping));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingOutbox);
+    }
+
+    @Test
+    void saveBooking_shouldNotCheckOverlap_whenBookingIsInactive() {
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        bookingDTO.setBrand(BrandDTO.builder().id(2L).build());
+        bookingDTO.setStartDate(LocalDate.of(2024, 3, 1));
+        bookingDTO.setEndDate(LocalDate.of(2024, 3, 10));
+
+        bookingService.saveBooking(bookingDTO);
+
+        verify(bookingRepository, never()).existsActiveOverlap(any(), any(), any(), any());
+    }
+
+    @Test
+    void saveBooking_shouldThrowValidationException_whenEndDateIsBeforeStartDate() {
+        bookingDTO.setStartDate(LocalDate.of(2024, 3, 10));
+        bookingDTO.setEndDate(LocalDate.of(2024, 3, 1));
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(bookingDTO));
+    }
+
+    @Test
+    void saveBooking_shouldThrowValidationException_whenSpanExceedsMaxBookingDays() {
+        bookingDTO.setStartDate(LocalDate.of(1, 1, 1));
+        bookingDTO.setEndDate(LocalDate.of(9999, 12, 31));
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBooking(bookingDTO));
+        verifyNoInteractions(occupancyRollup);
+    }
+
+    @Test
+    void saveBookings_shouldThrowValidationException_whenSpanExceedsMaxBookingDays() {
+        bookingDTO.setStartDate(LocalDate.of(2024, 1, 1));
+        bookingDTO.setEndDate(LocalDate.of(2024, 12, 31).plusDays(1));
+
+        assertThrows(ValidationException.class, () -> bookingService.saveBookings(List.of(bookingDTO)));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void saveBookings_shouldThrowBookingOverlapException_whenBookingsOfBatchOverlap() {
+        List<BookingDTO> bookingDTOs = List.of(
+                activeBooking(2L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10)),
+                activeBooking(3L, LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 6)),
+                activeBooking(2L, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 12)));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.saveBookings(bookingDTOs));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(bookingOutbox);
+    }
+
+    @Test
+    void saveBookings_shouldThrowBookingOverlapException_whenBookingOverlapsExistingBooking() {
+        when(bookingRepository.existsActiveOverlap(3L, LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 6), 0L))
+                .thenReturn(true);
+        List<BookingDTO> bookingDTOs = List.of(
+                activeBooking(3L, LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 6)),
+                activeBooking(2L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10)));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.saveBookings(bookingDTOs));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void updateBooking_shouldExcludeItselfFromOverlapCheck() {
+        Brand brand = new Brand();
+        brand.setId(2L);
+        booking.setBrand(brand);
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        BookingDTO updatedDetails = BookingDTO.builder()
+                .title("Booking B")
+                .active(true)
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build();
+
+        bookingService.updateBooking(1L, updatedDetails);
+
+        verify(bookingRepository).existsActiveOverlap(2L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), 1L);
+    }
+
+    @Test
+    void saveBookings_shouldFlushAndClearOncePerBatch() {
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<BookingDTO> bookingDTOs = new ArrayList<>();
+        for (int i = 0; i < BookingServiceImpl.BULK_FLUSH_SIZE + 1; i++) {
+            bookingDTOs.add(BookingDTO.builder().title("Booking " + i).build());
+        }
+
+        List<BookingDTO> result = bookingService.saveBookings(bookingDTOs);
+
+        assertEquals(bookingDTOs.size(), result.size());
+        assertEquals("Booking 0", result.get(0).getTitle());
+        assertEquals("Booking " + BookingServiceImpl.BULK_FLUSH_SIZE, result.get(result.size() - 1).getTitle());
+        verify(bookingRepository, times(bookingDTOs.size())).save(any(Booking.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(bookingOutbox, times(bookingDTOs.size())).bookingCreated(any(Booking.class));
     }
 
     @Test
     void findBookingById_shouldReturnBookingDTO_whenBookingExists() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
 
         BookingDTO result = bookingService.findBookingById(1L);
 
@@ -56,11 +202,26 @@ class BookingServiceImplTest {
 
     @Test
     void deleteBooking_shouldReturnTrue_whenBookingIsDeleted() {
-        when(bookingRepository.existsById(1L)).thenReturn(false);
+        BookingPeriodDTO period = new BookingPeriodDTO(1L, 2L, null, true, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3), 0L);
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.of(period));
+        when(bookingRepository.deleteBookingById(1L)).thenReturn(1);
 
         boolean result = bookingService.deleteBooking(1L);
 
         assertTrue(result);
+        verify(bookingRepository, never()).existsById(any());
+        verify(bookingOutbox, times(1)).bookingDeleted(1L);
+        verify(occupancyRollup, times(1)).bookingsDeleted(List.of(period));
+        verify(customerBookingCounters, times(1)).bookingsDeleted(List.of(period));
+    }
+
+    @Test
+    void deleteBooking_shouldReturnFalse_whenBookingDoesNotExist() {
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(bookingService.deleteBooking(1L));
+        verify(bookingRepository, never()).deleteBookingById(any());
+        verifyNoInteractions(bookingOutbox, occupancyRollup);
     }
 
     @Test
@@ -76,7 +237,7 @@ class BookingServiceImplTest {
 
     @Test
     void updateBooking_shouldReturnUpdatedBookingDTO_whenBookingExists() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingDTO updatedDetails = new BookingDTO();
@@ -86,11 +247,33 @@ class BookingServiceImplTest {
 
         assertNotNull(result);
         assertEquals("Booking B", result.getTitle());
+        verify(bookingOutbox, times(1)).bookingUpdated(booking);
+    }
+
+    @Test
+    void updateBooking_shouldPassPeriodBeforeUpdateToRollup() {
+        booking.setActive(true);
+        booking.setBrand(Brand.builder().id(2L).build());
+        booking.setStartDate(LocalDate.of(2024, 3, 1));
+        booking.setEndDate(LocalDate.of(2024, 3, 3));
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        bookingService.updateBooking(1L, BookingDTO.builder()
+                .title("Booking B")
+                .active(true)
+                .startDate(LocalDate.of(2024, 3, 2))
+                .endDate(LocalDate.of(2024, 3, 5))
+                .build());
+
+        verify(occupancyRollup, times(1)).bookingChanged(
+                new BookingPeriodDTO(1L, 2L, null, true, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3), 0L), booking);
+        assertEquals(LocalDate.of(2024, 3, 5), booking.getEndDate());
     }
 
     @Test
     void updateBooking_shouldReturnException_whenBookingDoesNotExists() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.empty());
 
         BookingDTO updatedDetails = new BookingDTO();
         updatedDetails.setTitle("Booking B");
@@ -103,4 +286,257 @@ class BookingServiceImplTest {
 
         assertEquals("Booking not found for id: 1", exception.getMessage());
     }
+
+    @Test
+    void updateBookingWithVersion_shouldUpdateOnceAndReadBack_whenVersionMatches() {
+        BookingPeriodDTO before = new BookingPeriodDTO(1L, null, null, false, null, null, 3L);
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.of(before));
+        when(bookingRepository.updateIfVersionMatches(eq(1L), eq(3L), eq("Booking B"), any(), eq(false), any(), any(), any()))
+                .thenReturn(1);
+        booking.setVersion(4L);
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+
+        BookingDTO result = bookingService.updateBooking(1L, BookingDTO.builder().title("Booking B").build(), 3L);
+
+        assertEquals(4L, result.getVersion());
+        verify(bookingRepository, never()).existsById(any());
+        verify(bookingOutbox, times(1)).bookingUpdated(booking);
+        verify(occupancyRollup, times(1)).bookingChanged(before, booking);
+    }
+
+    @Test
+    void updateBookingWithVersion_shouldThrowPreconditionFailedException_whenVersionDiffers() {
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.of(new BookingPeriodDTO(1L, null, null, false, null, null, 4L)));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.updateBooking(1L, BookingDTO.builder().title("Booking B").build(), 3L));
+        verify(bookingRepository, never()).updateIfVersionMatches(any(), anyLong(), any(), any(), anyBoolean(), any(), any(), any());
+        verifyNoInteractions(bookingOutbox, occupancyRollup);
+    }
+
+    @Test
+    void updateBookingWithVersion_shouldThrowEntityNotFoundException_whenBookingDoesNotExist() {
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.updateBooking(1L, BookingDTO.builder().title("Booking B").build(), 3L));
+    }
+
+    @Test
+    void updateBookingWithVersion_shouldCheckOverlapWithCurrentBrand_whenBrandIsNotSent() {
+        BookingDTO details = BookingDTO.builder()
+                .title("Booking B")
+                .active(true)
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 3, 10))
+                .build();
+        when(bookingRepository.lockPeriodById(1L)).thenReturn(Optional.of(new BookingPeriodDTO(1L, 2L, null, false, null, null, 3L)));
+        when(bookingRepository.existsActiveOverlap(2L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), 1L))
+                .thenReturn(true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.updateBooking(1L, details, 3L));
+        verify(bookingRepository, never()).updateIfVersionMatches(any(), anyLong(), any(), any(), anyBoolean(), any(), any(), any());
+    }
+
+    @Test
+    void patchBooking_shouldNotWrite_whenPatchChangesNothing() {
+        booking.setDescription("Description");
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+
+        BookingDTO result = bookingService.patchBooking(1L, current -> {
+            current.setTitle("Booking A");
+            return current;
+        }, null);
+
+        assertEquals("Description", result.getDescription());
+        verify(bookingRepository, never()).flush();
+        verifyNoInteractions(bookingOutbox);
+    }
+
+    @Test
+    void patchBooking_shouldChangeOnlyPatchedFields() {
+        booking.setDescription("Description");
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+
+        BookingDTO result = bookingService.patchBooking(1L, current -> {
+            current.setActive(true);
+            return current;
+        }, null);
+
+        assertTrue(result.isActive());
+        assertEquals("Booking A", booking.getTitle());
+        assertEquals("Description", booking.getDescription());
+        verify(bookingRepository).flush();
+        verify(bookingOutbox, times(1)).bookingUpdated(booking);
+    }
+
+    @Test
+    void patchBooking_shouldThrowPreconditionFailedException_whenVersionDiffers() {
+        booking.setVersion(4L);
+        when(bookingRepository.findWithBrandAndCustomerById(1L)).thenReturn(Optional.of(booking));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.patchBooking(1L, current -> current, 3L));
+        verify(bookingRepository, never()).flush();
+    }
+
+    @Test
+    void findBookingsByBrandId_shouldReturnNextCursor_whenMoreBookingsExist() {
+        when(bookingRepository.findByBrandIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(bookingWithId(1L), bookingWithId(2L), bookingWithId(3L)));
+
+        BookingPageDTO result = bookingService.findBookingsByBrandId(1L, null, null);
+
+        assertEquals(2, result.getBookings().size());
+        assertNotNull(result.getNextCursor());
+        assertEquals(2L, BookingCursors.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void findBookingsByBrandId_shouldTakeBrandFromBrandService() {
+        BrandDTO brandDTO = BrandDTO.builder().id(1L).name("Brand A").build();
+        when(brandService.findBrandById(1L)).thenReturn(Optional.of(brandDTO));
+        when(bookingRepository.findByBrandIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(bookingWithId(1L), bookingWithId(2L)));
+
+        BookingPageDTO result = bookingService.findBookingsByBrandId(1L, null, null);
+
+        assertSame(brandDTO, result.getBookings().get(0).getBrand());
+        assertSame(brandDTO, result.getBookings().get(1).getBrand());
+        verify(brandService, times(1)).findBrandById(1L);
+    }
+
+    @Test
+    void findBookingsByBrandId_shouldNotLookUpBrand_whenThereAreNoBookings() {
+        when(bookingRepository.findByBrandIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        BookingPageDTO result = bookingService.findBookingsByBrandId(1L, null, null);
+
+        assertTrue(result.getBookings().isEmpty());
+        verifyNoInteractions(brandService);
+    }
+
+    @Test
+    void findBookingsByCustomerId_shouldReturnNoCursor_onLastPage() {
+        String cursor = BookingCursors.encode(7L);
+        when(bookingRepository.findByCustomerIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(7L), any(Limit.class)))
+                .thenReturn(List.of(bookingWithId(8L)));
+
+        BookingPageDTO result = bookingService.findBookingsByCustomerId(1L, cursor, 50);
+
+        assertEquals(1, result.getBookings().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void findBookingsByCustomerId_shouldThrowValidationException_whenCursorIsInvalid() {
+        assertThrows(
+                ValidationException.class,
+                () -> bookingService.findBookingsByCustomerId(1L, "not-a-cursor", null)
+        );
+    }
+
+    @Test
+    void findBookingsInRange_shouldPassFiltersAndCursorToRepository() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(bookingRepository.findActiveInRange(from, to, 1L, null, 7L, 3))
+                .thenReturn(List.of(bookingWithId(8L), bookingWithId(9L), bookingWithId(10L)));
+
+        BookingPageDTO result = bookingService.findBookingsInRange(from, to, 1L, null, BookingCursors.encode(7L), null);
+
+        assertEquals(2, result.getBookings().size());
+        assertEquals(9L, BookingCursors.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void findBookingsInRange_shouldThrowValidationException_whenToIsBeforeFrom() {
+        assertThrows(
+                ValidationException.class,
+                () -> bookingService.findBookingsInRange(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), null, null, null, null)
+        );
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void searchBookings_shouldKeepRankOrderAndEncodeOffsetAsCursor() {
+        when(bookingRepository.searchIds("harbour", 1L, null, 2L, 3)).thenReturn(List.of(9L, 4L, 7L));
+        when(bookingRepository.findWithBrandAndCustomerByIdIn(List.of(9L, 4L)))
+                .thenReturn(List.of(bookingWithId(4L), bookingWithId(9L)));
+
+        BookingPageDTO result = bookingService.searchBookings(" harbour ", 1L, null, SearchCursors.encode(2L), null);
+
+        assertEquals(List.of(9L, 4L), result.getBookings().stream().map(BookingDTO::getId).toList());
+        assertEquals(4L, SearchCursors.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void searchBookings_shouldThrowValidationException_whenCursorIsNegativeOrBeyondMaxOffset() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.searchBookings("harbour", null, null, SearchCursors.encode(-1L), null));
+        assertThrows(ValidationException.class,
+                () -> bookingService.searchBookings("harbour", null, null, BookingCursors.encode(2L), null));
+        assertThrows(ValidationException.class, () -> bookingService.searchBookings("harbour", null, null,
+                SearchCursors.encode(SearchCursors.MAX_OFFSET), null));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void searchBookings_shouldEndAtMaxOffset() {
+        long lastOffset = SearchCursors.MAX_OFFSET - 2;
+        when(bookingRepository.searchIds("harbour", null, null, lastOffset, 3)).thenReturn(List.of(9L, 4L, 7L));
+        when(bookingRepository.findWithBrandAndCustomerByIdIn(List.of(9L, 4L)))
+                .thenReturn(List.of(bookingWithId(4L), bookingWithId(9L)));
+
+        BookingPageDTO result = bookingService.searchBookings("harbour", null, null,
+                SearchCursors.encode(lastOffset), null);
+
+        assertEquals(2, result.getBookings().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchBookings_shouldThrowValidationException_whenQueryIsBlank() {
+        assertThrows(
+                ValidationException.class,
+                () -> bookingService.searchBookings("  ", null, null, null, null)
+        );
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void exportBookings_shouldPassEveryBookingToConsumerAndCloseStream() {
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= BookingRepository.STREAM_FETCH_SIZE + 1; id++) {
+            bookings.add(bookingWithId(id));
+        }
+        boolean[] closed = {false};
+        when(bookingRepository.streamAll()).thenReturn(bookings.stream().onClose(() -> closed[0] = true));
+
+        List<BookingDTO> exported = new ArrayList<>();
+        bookingService.exportBookings(exported::add);
+
+        assertEquals(bookings.size(), exported.size());
+        assertEquals(1L, exported.get(0).getId());
+        assertTrue(closed[0]);
+        verify(entityManager, times(1)).clear();
+    }
+
+    private Booking bookingWithId(Long id) {
+        Booking result = new Booking();
+        result.setId(id);
+        result.setTitle("Booking " + id);
+        return result;
+    }
+
+    private static BookingDTO activeBooking(Long brandId, LocalDate startDate, LocalDate endDate) {
+        return BookingDTO.builder()
+                .title("Booking")
+                .active(true)
+                .brand(BrandDTO.builder().id(brandId).build())
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
 }
@@ -1,23 +1,39 @@
 package com.rewe.customerbookingservice.services.impl;
 
+import com.rewe.customerbookingservice.config.BrandCacheProperties;
 import com.rewe.customerbookingservice.data.entities.Brand;
+import com.rewe.customerbookingservice.data.repositories.BrandDailyOccupancyRepository;
 import com.rewe.customerbookingservice.data.repositories.BrandRepository;
 import com.rewe.customerbookingservice.dtos.BookingDTO;
 import com.rewe.customerbookingservice.dtos.BrandDTO;
+import com.rewe.customerbookingservice.dtos.DailyOccupancyDTO;
+import com.rewe.customerbookingservice.mappers.impl.DirectEntityMapper;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.modelmapper.ModelMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BrandServiceImplTest {
@@ -25,8 +41,17 @@ class BrandServiceImplTest {
     @Mock
     private BrandRepository brandRepository;
 
+    @Mock
+    private BrandDailyOccupancyRepository occupancyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private DirectEntityMapper entityMapper;
+
     @Spy
-    private ModelMapper modelMapper;
+    private BrandCache brandCache = new BrandCache(new BrandCacheProperties(100, Duration.ofMinutes(10)));
 
     @InjectMocks
     private BrandServiceImpl brandService;
@@ -40,7 +65,8 @@ class BrandServiceImplTest {
         brand = new Brand();
         brand.setId(1L);
         brand.setName("Brand A");
-        brandDTO = modelMapper.map(brand, BrandDTO.class);
+        brand.setShortCode("BA");
+        brandDTO = entityMapper.toDto(brand);
     }
 
     @Test
@@ -56,13 +82,20 @@ class BrandServiceImplTest {
 
     @Test
     void deleteBrand_shouldReturnTrue_whenBrandIsDeleted() {
-        when(brandRepository.existsById(1L)).thenReturn(false);
+        when(brandRepository.deleteBrandById(1L)).thenReturn(1);
 
         boolean result = brandService.deleteBrand(1L);
 
         assertTrue(result);
     }
 
+    @Test
+    void deleteBrand_shouldReturnFalse_whenBrandDoesNotExist() {
+        when(brandRepository.deleteBrandById(1L)).thenReturn(0);
+
+        assertFalse(brandService.deleteBrand(1L));
+    }
+
     @Test
     void updateBrand_shouldReturnUpdatedBrandDTO_whenBrandExists() {
         when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
@@ -94,4 +127,186 @@ class BrandServiceImplTest {
 
         assertEquals("Brand not found for id: 1", exception.getMessage());
     }
+
+    @Test
+    void updateBrandWithVersion_shouldNotReadBrand_whenVersionMatches() {
+        when(brandRepository.updateIfVersionMatches(eq(1L), eq(2L), eq("Brand B"), any(), eq("BB"), any())).thenReturn(1);
+
+        BrandDTO result = brandService.updateBrand(1L, BrandDTO.builder().name("Brand B").shortCode("BB").build(), 2L);
+
+        assertEquals(1L, result.getId());
+        assertEquals(3L, result.getVersion());
+        assertEquals("Brand B", result.getName());
+        verify(brandRepository, never()).findById(any());
+        verify(brandCache, times(1)).evict(1L);
+    }
+
+    @Test
+    void updateBrandWithVersion_shouldThrowPreconditionFailedException_whenVersionDiffers() {
+        when(brandRepository.updateIfVersionMatches(eq(1L), anyLong(), any(), any(), any(), any())).thenReturn(0);
+        when(brandRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> brandService.updateBrand(1L, BrandDTO.builder().name("Brand B").build(), 2L));
+    }
+
+    @Test
+    void findAvailableBrands_shouldReturnBrandsWithoutOverlappingBookings() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(brandRepository.findAvailableBetween(from, to)).thenReturn(List.of(brand));
+
+        List<BrandDTO> result = brandService.findAvailableBrands(from, to);
+
+        assertEquals(1, result.size());
+        assertEquals("BA", result.get(0).getShortCode());
+    }
+
+    @Test
+    void findAvailableBrands_shouldThrowValidationException_whenToIsBeforeFrom() {
+        LocalDate from = LocalDate.of(2024, 3, 2);
+        LocalDate to = LocalDate.of(2024, 3, 1);
+
+        assertThrows(ValidationException.class, () -> brandService.findAvailableBrands(from, to));
+        verify(brandRepository, never()).findAvailableBetween(any(), any());
+    }
+
+    @Test
+    void findOccupancy_shouldReturnEveryDayOfTheWindow() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 3);
+        when(occupancyRepository.findDailyOccupancy(1L, from, to))
+                .thenReturn(List.of(new DailyOccupancyDTO(LocalDate.of(2024, 3, 2), 1)));
+
+        List<DailyOccupancyDTO> result = brandService.findOccupancy(1L, from, to);
+
+        assertEquals(List.of(new DailyOccupancyDTO(from, 0), new DailyOccupancyDTO(LocalDate.of(2024, 3, 2), 1),
+                new DailyOccupancyDTO(to, 0)), result);
+    }
+
+    @Test
+    void findOccupancy_shouldThrowValidationException_whenWindowIsLongerThanAYear() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = from.plusDays(BrandServiceImpl.MAX_OCCUPANCY_DAYS);
+
+        assertThrows(ValidationException.class, () -> brandService.findOccupancy(1L, from, to));
+        verify(occupancyRepository, never()).findDailyOccupancy(any(), any(), any());
+    }
+
+    @Test
+    void findBrandById_shouldLoadBrandOnce_whenCalledTwice() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
+
+        Optional<BrandDTO> first = brandService.findBrandById(1L);
+        Optional<BrandDTO> second = brandService.findBrandById(1L);
+
+        assertTrue(first.isPresent());
+        assertEquals(first, second);
+        verify(brandRepository, times(1)).findById(1L);
+        assertEquals(1, brandCache.idStats().hitCount());
+    }
+
+    @Test
+    void findBrandById_shouldLoadMissInReadOnlyTransaction_andServeHitWithoutOne() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
+
+        brandService.findBrandById(1L);
+        brandService.findBrandById(1L);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(1)).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void findBrandById_shouldReturnEmpty_whenBrandDoesNotExist() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(brandService.findBrandById(1L).isEmpty());
+        assertTrue(brandService.findBrandById(1L).isEmpty());
+        verify(brandRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findBrandById_shouldNotCacheBrand_whenLoadedInReadOnlyTransaction() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertTrue(brandService.findBrandById(1L).isPresent());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertTrue(brandService.findBrandById(1L).isPresent());
+        assertTrue(brandService.findBrandById(1L).isPresent());
+
+        verify(brandRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findBrandByShortCode_shouldLoadBrandOnce_whenCalledTwice() {
+        when(brandRepository.findFirstByShortCodeOrderByIdAsc("BA")).thenReturn(Optional.of(brand));
+
+        brandService.findBrandByShortCode("BA");
+        Optional<BrandDTO> result = brandService.findBrandByShortCode("BA");
+
+        assertTrue(result.isPresent());
+        assertEquals("Brand A", result.get().getName());
+        verify(brandRepository, times(1)).findFirstByShortCodeOrderByIdAsc("BA");
+    }
+
+    @Test
+    void updateBrand_shouldEvictCachedBrand() {
+        Brand updatedBrand = new Brand();
+        updatedBrand.setId(1L);
+        updatedBrand.setName("Brand B");
+        updatedBrand.setShortCode("BB");
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand), Optional.of(updatedBrand));
+        when(brandRepository.findFirstByShortCodeOrderByIdAsc("BA")).thenReturn(Optional.of(brand), Optional.empty());
+        when(brandRepository.save(any(Brand.class))).thenReturn(updatedBrand);
+        brandService.findBrandById(1L);
+        brandService.findBrandByShortCode("BA");
+
+        brandService.updateBrand(1L, BrandDTO.builder().name("Brand B").shortCode("BB").build());
+
+        assertEquals("Brand B", brandService.findBrandById(1L).orElseThrow().getName());
+        assertTrue(brandService.findBrandByShortCode("BA").isEmpty());
+    }
+
+    @Test
+    void deleteBrand_shouldEvictCachedBrand() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand), Optional.empty());
+        brandService.findBrandById(1L);
+
+        brandService.deleteBrand(1L);
+
+        assertTrue(brandService.findBrandById(1L).isEmpty());
+    }
+
+    @Test
+    void patchBrand_shouldNotWrite_whenPatchChangesNothing() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
+
+        BrandDTO result = brandService.patchBrand(1L, current -> current, null);
+
+        assertEquals("Brand A", result.getName());
+        verify(brandRepository, never()).flush();
+    }
+
+    @Test
+    void patchBrand_shouldEvictCachedBrand_whenShortCodeChanges() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(brand));
+        when(brandRepository.findFirstByShortCodeOrderByIdAsc("BA")).thenReturn(Optional.of(brand), Optional.empty());
+        brandService.findBrandByShortCode("BA");
+
+        BrandDTO result = brandService.patchBrand(1L, current -> {
+            current.setShortCode("BB");
+            return current;
+        }, 0L);
+
+        assertEquals("BB", result.getShortCode());
+        assertEquals("Brand A", brand.getName());
+        verify(brandRepository, times(1)).flush();
+        assertTrue(brandService.findBrandByShortCode("BA").isEmpty());
+    }
 }
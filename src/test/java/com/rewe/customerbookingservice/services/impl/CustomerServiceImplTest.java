@@ -1,27 +1,45 @@
 package com.rewe.customerbookingservice.services.impl;
 
 import com.rewe.customerbookingservice.data.entities.Customer;
+import com.rewe.customerbookingservice.data.repositories.BookingRepository;
 import com.rewe.customerbookingservice.data.repositories.CustomerRepository;
+import com.rewe.customerbookingservice.dtos.BookingPeriodDTO;
 import com.rewe.customerbookingservice.dtos.CustomerDTO;
+import com.rewe.customerbookingservice.exception.PreconditionFailedException;
+import com.rewe.customerbookingservice.mappers.EntityMapper;
+import com.rewe.customerbookingservice.mappers.impl.DirectEntityMapper;
+import com.rewe.customerbookingservice.outbox.BookingOutbox;
+import com.rewe.customerbookingservice.rollup.OccupancyRollup;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CustomerServiceImplTest {
 
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final EntityMapper entityMapper = new DirectEntityMapper();
     private final CustomerRepository customerRepository = Mockito.mock(CustomerRepository.class);
-    private final CustomerServiceImpl customerService = new CustomerServiceImpl(customerRepository, modelMapper);
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final OccupancyRollup occupancyRollup = Mockito.mock(OccupancyRollup.class);
+    private final BookingOutbox bookingOutbox = Mockito.mock(BookingOutbox.class);
+    private final CustomerServiceImpl customerService = new CustomerServiceImpl(customerRepository, entityMapper,
+            bookingRepository, occupancyRollup, bookingOutbox);
 
     private Customer customer;
     private CustomerDTO customerDTO;
@@ -32,7 +50,7 @@ class CustomerServiceImplTest {
         customer = new Customer();
         customer.setId(1L);
         customer.setName("John Doe");
-        customerDTO = modelMapper.map(customer, CustomerDTO.class);
+        customerDTO = entityMapper.toDto(customer);
     }
 
     @Test
@@ -46,13 +64,43 @@ class CustomerServiceImplTest {
         assertEquals(customerDTO.getName(), result.getName());
     }
 
+    @Test
+    void findCustomerById_shouldReturnCustomerWithBookingCounters() {
+        customer.setTotalBookings(4);
+        customer.setActiveBookings(2);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        Optional<CustomerDTO> result = customerService.findCustomerById(1L);
+
+        assertTrue(result.isPresent());
+        assertEquals(4, result.get().getTotalBookings());
+        assertEquals(2, result.get().getActiveBookings());
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void deleteCustomer_shouldReturnTrue_whenCustomerIsDeleted() {
-        when(customerRepository.existsById(1L)).thenReturn(false);
+        List<BookingPeriodDTO> periods = List.of(
+                new BookingPeriodDTO(1L, 2L, null, true, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 3), 0L));
+        when(bookingRepository.lockPeriodsByCustomerId(1L)).thenReturn(periods);
+        when(customerRepository.deleteCustomerById(1L)).thenReturn(1);
 
         boolean result = customerService.deleteCustomer(1L);
 
         assertTrue(result);
+        InOrder inOrder = inOrder(bookingRepository, occupancyRollup, bookingOutbox, customerRepository);
+        inOrder.verify(bookingRepository).lockPeriodsByCustomerId(1L);
+        inOrder.verify(occupancyRollup).bookingsDeleted(periods);
+        inOrder.verify(bookingRepository).deleteBookingsByCustomerId(1L);
+        inOrder.verify(bookingOutbox).bookingsDeleted(List.of(1L));
+        inOrder.verify(customerRepository).deleteCustomerById(1L);
+    }
+
+    @Test
+    void deleteCustomer_shouldReturnFalse_whenCustomerDoesNotExist() {
+        when(customerRepository.deleteCustomerById(1L)).thenReturn(0);
+
+        assertFalse(customerService.deleteCustomer(1L));
     }
 
     @Test
@@ -86,4 +134,53 @@ class CustomerServiceImplTest {
 
         assertEquals("Customer with id 1 not found", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateCustomerWithVersion_shouldReturnUpdatedCustomerDTO_whenVersionMatches() {
+        when(customerRepository.updateIfVersionMatches(eq(1L), eq(0L), eq("Jane Doe"), any(), anyBoolean(), anyInt(), any()))
+                .thenReturn(1);
+        customer.setName("Jane Doe");
+        customer.setVersion(1L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        CustomerDTO result = customerService.updateCustomer(1L, CustomerDTO.builder().name("Jane Doe").build(), 0L);
+
+        assertEquals("Jane Doe", result.getName());
+        assertEquals(1L, result.getVersion());
+    }
+
+    @Test
+    void updateCustomerWithVersion_shouldThrowPreconditionFailedException_whenVersionDiffers() {
+        when(customerRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> customerService.updateCustomer(1L, CustomerDTO.builder().name("Jane Doe").build(), 0L));
+    }
+
+    @Test
+    void patchCustomer_shouldNotWrite_whenPatchChangesNothing() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        customerService.patchCustomer(1L, current -> {
+            current.setName("John Doe");
+            return current;
+        }, null);
+
+        verify(customerRepository, never()).flush();
+    }
+
+    @Test
+    void patchCustomer_shouldWriteChangedFields() {
+        customer.setEmail("john.doe@example.com");
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        CustomerDTO result = customerService.patchCustomer(1L, current -> {
+            current.setActive(true);
+            return current;
+        }, null);
+
+        assertTrue(result.isActive());
+        assertEquals("john.doe@example.com", customer.getEmail());
+        verify(customerRepository).flush();
+    }
+}
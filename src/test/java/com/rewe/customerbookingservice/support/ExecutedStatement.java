@@ -0,0 +1,13 @@
+package com.rewe.customerbookingservice.support;
+
+import java.util.List;
+
+/**
+ * A statement as it was sent to the database, with its bind parameters in order.
+ */
+public record ExecutedStatement(String sql, List<Object> parameters) {
+
+    public Object[] parameterArray() {
+        return parameters.toArray();
+    }
+}
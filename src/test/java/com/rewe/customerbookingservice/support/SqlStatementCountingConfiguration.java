@@ -0,0 +1,41 @@
+package com.rewe.customerbookingservice.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the application's DataSource through datasource-proxy and provides {@link SqlStatements}.
+ * Import it into a {@code @SpringBootTest} to assert statement budgets or capture statements.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementCountingConfiguration {
+
+    private static final StatementCountListener LISTENER = new StatementCountListener();
+    private static final StatementCaptureListener CAPTURE_LISTENER = new StatementCaptureListener();
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !beanName.startsWith("scopedTarget.")) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(LISTENER)
+                            .listener(CAPTURE_LISTENER)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatements sqlStatements() {
+        return new SqlStatements(LISTENER, CAPTURE_LISTENER);
+    }
+}
@@ -0,0 +1,41 @@
+package com.rewe.customerbookingservice.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements executed during one measured call, with fluent budget assertions.
+ */
+public record SqlStatementCounts(long selects, long inserts, long updates, long deletes, long others) {
+
+    public SqlStatementCounts selects(long expected) {
+        assertThat(selects).as("SELECT statements in %s", this).isEqualTo(expected);
+        return this;
+    }
+
+    public SqlStatementCounts atMostSelects(long max) {
+        assertThat(selects).as("SELECT statements in %s", this).isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    public SqlStatementCounts inserts(long expected) {
+        assertThat(inserts).as("INSERT statements in %s", this).isEqualTo(expected);
+        return this;
+    }
+
+    public SqlStatementCounts updates(long expected) {
+        assertThat(updates).as("UPDATE statements in %s", this).isEqualTo(expected);
+        return this;
+    }
+
+    public SqlStatementCounts deletes(long expected) {
+        assertThat(deletes).as("DELETE statements in %s", this).isEqualTo(expected);
+        return this;
+    }
+
+    /**
+     * No INSERT, UPDATE or DELETE statements.
+     */
+    public SqlStatementCounts noWrites() {
+        return inserts(0).updates(0).deletes(0);
+    }
+}
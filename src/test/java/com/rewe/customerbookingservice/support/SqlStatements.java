@@ -0,0 +1,44 @@
+package com.rewe.customerbookingservice.support;
+
+import java.util.List;
+
+/**
+ * Entry point for statement budgets in integration tests, see {@link SqlStatementCountingConfiguration}.
+ *
+ * <pre>
+ * sqlStatements.count(() -&gt; restTemplate.getForEntity(uri, BookingDTO.class))
+ *         .selects(1)
+ *         .noWrites();
+ * </pre>
+ */
+public class SqlStatements {
+
+    private final StatementCountListener listener;
+    private final StatementCaptureListener captureListener;
+
+    public SqlStatements(StatementCountListener listener, StatementCaptureListener captureListener) {
+        this.listener = listener;
+        this.captureListener = captureListener;
+    }
+
+    public SqlStatementCounts count(Runnable call) {
+        listener.reset();
+        call.run();
+        return listener.snapshot();
+    }
+
+    /**
+     * The statements the call executed on the current thread, e.g. to {@code EXPLAIN} the SQL a
+     * repository method generates.
+     */
+    public List<ExecutedStatement> capture(Runnable call) {
+        captureListener.start();
+        List<ExecutedStatement> statements;
+        try {
+            call.run();
+        } finally {
+            statements = captureListener.stop();
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,57 @@
+package com.rewe.customerbookingservice.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Records the statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}, so statements of background jobs are left out.
+ */
+public class StatementCaptureListener implements QueryExecutionListener {
+
+    private final ThreadLocal<List<ExecutedStatement>> captured = new ThreadLocal<>();
+
+    public void start() {
+        captured.set(new ArrayList<>());
+    }
+
+    public List<ExecutedStatement> stop() {
+        List<ExecutedStatement> statements = captured.get();
+        captured.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<ExecutedStatement> statements = captured.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (queryInfo.getParametersList().isEmpty()) {
+                statements.add(new ExecutedStatement(queryInfo.getQuery(), List.of()));
+            }
+            for (List<ParameterSetOperation> operations : queryInfo.getParametersList()) {
+                statements.add(new ExecutedStatement(queryInfo.getQuery(), parameters(operations)));
+            }
+        }
+    }
+
+    private static List<Object> parameters(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation)
+                        ? null : operation.getArgs()[1])
+                .toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.rewe.customerbookingservice.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts executed statements by type across all threads, so statements issued by the server
+ * thread handling a test request are included. A JDBC batch counts once per distinct statement.
+ */
+public class StatementCountListener implements QueryExecutionListener {
+
+    private final Map<QueryType, LongAdder> counts = new EnumMap<>(QueryType.class);
+
+    public StatementCountListener() {
+        for (QueryType type : QueryType.values()) {
+            counts.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            counts.get(QueryUtils.getQueryType(queryInfo.getQuery())).increment();
+        }
+    }
+
+    public void reset() {
+        counts.values().forEach(LongAdder::reset);
+    }
+
+    public SqlStatementCounts snapshot() {
+        return new SqlStatementCounts(
+                counts.get(QueryType.SELECT).sum(),
+                counts.get(QueryType.INSERT).sum(),
+                counts.get(QueryType.UPDATE).sum(),
+                counts.get(QueryType.DELETE).sum(),
+                counts.get(QueryType.OTHER).sum());
+    }
+}